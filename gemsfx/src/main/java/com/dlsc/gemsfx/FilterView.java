@@ -1,12 +1,16 @@
 package com.dlsc.gemsfx;
 
 import com.dlsc.gemsfx.skins.FilterViewSkin;
+import com.dlsc.gemsfx.util.ExecutorUtil;
+import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyListProperty;
 import javafx.beans.property.ReadOnlyListWrapper;
 import javafx.beans.property.ReadOnlyObjectProperty;
@@ -18,8 +22,10 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ListChangeListener.Change;
 import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.scene.Node;
@@ -30,11 +36,20 @@ import javafx.util.Callback;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A view for presenting a set of predefined filter groups, each one with a list of filters.
@@ -53,17 +68,62 @@ import java.util.function.Predicate;
  * <p>
  * Applications with additional filtering needs can utilize the {@link #additionalFilterPredicateProperty()}.
  * </p>
+ * <p>
+ * By default, the filtering happens on the UI thread. Applications managing large numbers of items can
+ * set an {@link #executorProperty() executor}, in which case the filter predicate will be evaluated in
+ * the background and the filtered items will be updated with the result once the evaluation has finished.
+ * </p>
  *
  * @param <T> the type of the model objects filtered by the view
  */
 public class FilterView<T> extends Control {
 
+    private static final Logger LOG = Logger.getLogger(FilterView.class.getName());
+
+    // lists with more items get filtered by several threads in parallel
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final Predicate<Object> ACCEPT_ALL = item -> true;
+
+    private FilterRun<T> currentRun;
+    private CountRun<T> currentCountRun;
+
+    // incremented whenever something other than the filter text changes the filter predicate
+    private long predicateVersion;
+    private long itemsVersion;
+
+    // the filtered items when filtering in the background, the same list is used for all results
+    private final ObservableList<T> backgroundResult = FXCollections.observableArrayList();
+    private final ObservableList<T> unmodifiableBackgroundResult = FXCollections.unmodifiableObservableList(backgroundResult);
+
+    // the last result of a background evaluation and the state it was computed for
+    private List<T> lastResult;
+    private String lastResultText;
+    private long lastResultPredicateVersion;
+    private long lastResultItemsVersion;
+
+    // the selected filters of each group and the predicate for everything else (null if there is nothing else)
+    private Map<FilterGroup<T>, List<Filter<T>>> selectedFilters = Map.of();
+    private Predicate<T> residualPredicate;
+
+    // the inputs of the residual predicate, it only gets replaced when they change so that its results can be cached
+    private String residualText;
+    private Callback<String, Predicate<T>> residualTextFilterProvider;
+    private Predicate<T> residualAdditionalPredicate;
+
+    // the items matched by each filter and by the residual predicate, only used for background evaluations
+    // and filter counts, never modified once stored
+    private final Map<Predicate<T>, BitSet> filterBits = new HashMap<>();
+
     public FilterView() {
         getStyleClass().add("filter-view");
 
         setFocusTraversable(false);
 
         InvalidationListener updatePredicateListener = (Observable it) -> {
+            if (it != filterTextProperty()) {
+                predicateVersion++;
+            }
 
             // first group the filters together according to the group to which they belong
 
@@ -89,12 +149,38 @@ public class FilterView<T> extends Control {
                 predicate = predicate.and(groupPredicate);
             }
 
+            selectedFilters = map;
+
             Callback<String, Predicate<T>> textFilterProvider = getTextFilterProvider();
-            if (textFilterProvider != null && StringUtils.isNotBlank(getFilterText())) {
-                predicate = predicate.and(textFilterProvider.call(getFilterText().toLowerCase()));
+            String text = textFilterProvider != null && StringUtils.isNotBlank(getFilterText()) ? getFilterText().toLowerCase() : null;
+            Predicate<T> additionalFilterPredicate = getAdditionalFilterPredicate();
+
+            if (!Objects.equals(text, residualText) || textFilterProvider != residualTextFilterProvider || additionalFilterPredicate != residualAdditionalPredicate) {
+                Predicate<T> residual = null;
+
+                if (text != null) {
+                    residual = textFilterProvider.call(text);
+                }
+
+                if (additionalFilterPredicate != ACCEPT_ALL) {
+                    residual = residual == null ? additionalFilterPredicate : residual.and(additionalFilterPredicate);
+                }
+
+                if (residualPredicate != null) {
+                    filterBits.remove(residualPredicate);
+                }
+
+                residualPredicate = residual;
+                residualText = text;
+                residualTextFilterProvider = textFilterProvider;
+                residualAdditionalPredicate = additionalFilterPredicate;
             }
 
-            filterPredicate.set(predicate.and(getAdditionalFilterPredicate()));
+            if (residualPredicate != null) {
+                predicate = predicate.and(residualPredicate);
+            }
+
+            filterPredicate.set(predicate);
         };
 
         filters.addListener(updatePredicateListener);
@@ -102,11 +188,548 @@ public class FilterView<T> extends Control {
         filterTextProperty().addListener(updatePredicateListener);
         additionalFilterPredicateProperty().addListener(updatePredicateListener);
 
-        items.addListener((Observable it) -> {
+        items.addListener((ListChangeListener<T>) change -> {
+            itemsVersion++;
+            if (usesFilterBits()) {
+                updateFilterBits(change);
+            }
+            updateFilteredItems();
+            updateFilterCounts();
+        });
+
+        executorProperty().addListener(it -> {
+            if (!usesFilterBits()) {
+                filterBits.clear();
+            }
+            updateFilteredItems();
+        });
+
+        // a change listener, the predicate does not get validated by a filtered list in this case
+        filterPredicateProperty().addListener((obs, oldPredicate, newPredicate) -> {
+            if (getExecutor() != null) {
+                filterInBackground();
+            }
+            updateFilterCounts();
+        });
+
+        showFilterCountsProperty().addListener(it -> {
+            if (!usesFilterBits()) {
+                filterBits.clear();
+            }
+            updateFilterCounts();
+        });
+
+        // the counts also depend on the filters of each group
+        ListChangeListener<Filter<T>> groupFiltersListener = change -> updateFilterCounts();
+        filterGroups.addListener((ListChangeListener<FilterGroup<T>>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(group -> group.getFilters().removeListener(groupFiltersListener));
+                change.getAddedSubList().forEach(group -> group.getFilters().addListener(groupFiltersListener));
+            }
+            updateFilterCounts();
+        });
+    }
+
+    /*
+     * The cached filter results are kept in line with the items when they are used.
+     */
+    private boolean usesFilterBits() {
+        return getExecutor() != null || isShowFilterCounts();
+    }
+
+    /*
+     * Keeps the results computed by the given run, except for those of an outdated residual predicate.
+     */
+    private void storeBits(BitsRun<T> run) {
+        run.computedBits.forEach((predicate, bits) -> {
+            if (predicate instanceof Filter || predicate == residualPredicate) {
+                filterBits.put(predicate, bits);
+            }
+        });
+    }
+
+    /*
+     * Counts the matches of all filters in the background.
+     */
+    private void updateFilterCounts() {
+        if (currentCountRun != null) {
+            currentCountRun.cancel();
+            currentCountRun = null;
+        }
+
+        if (!isShowFilterCounts()) {
+            filterCounts.clear();
+            return;
+        }
+
+        List<List<Filter<T>>> groupFilters = new ArrayList<>();
+        List<List<Filter<T>>> selected = new ArrayList<>();
+        for (FilterGroup<T> group : getFilterGroups()) {
+            groupFilters.add(new ArrayList<>(group.getFilters()));
+            selected.add(selectedFilters.getOrDefault(group, List.of()));
+        }
+
+        long itemsVersion = this.itemsVersion;
+
+        CountRun<T> run = new CountRun<>(new ArrayList<>(getItems()), groupFilters, selected, new HashMap<>(filterBits), residualPredicate);
+        currentCountRun = run;
+
+        Executor executor = getExecutor() != null ? getExecutor() : sharedExecutor();
+        run.start(executor).whenComplete((counts, ex) -> Platform.runLater(() -> {
+            if (currentCountRun != run) {
+                return;
+            }
+
+            currentCountRun = null;
+
+            if (ex != null) {
+                LOG.log(Level.SEVERE, "error when trying to count the matches of the filters", ex);
+            } else {
+                if (this.itemsVersion == itemsVersion && usesFilterBits()) {
+                    storeBits(run);
+                }
+
+                // only update the counts that have changed
+                filterCounts.keySet().retainAll(counts.keySet());
+                counts.forEach((filter, count) -> {
+                    if (!count.equals(filterCounts.get(filter))) {
+                        filterCounts.put(filter, count);
+                    }
+                });
+            }
+        }));
+    }
+
+    private void updateFilteredItems() {
+        if (getExecutor() == null) {
+            cancelFilterRun();
+            lastResult = null;
+
+            // a filtered list of the same items keeps itself up to date, but it might have been
+            // released when an executor was set for a short time
+            if (filteredItems.get() instanceof FilteredList<T> current && current.getSource() == getItems()) {
+                if (!current.predicateProperty().isBound()) {
+                    current.predicateProperty().bind(filterPredicateProperty());
+                }
+                return;
+            }
+
+            releaseFilteredList();
+
             FilteredList<T> filteredList = new FilteredList<>(getItems());
             filteredList.predicateProperty().bind(filterPredicateProperty());
             filteredItems.set(filteredList);
-        });
+            backgroundResult.clear();
+        } else {
+            // keeps showing the current list until the result is available, but without testing
+            // the items again on the FX thread
+            releaseFilteredList();
+            filterInBackground();
+        }
+    }
+
+    private void releaseFilteredList() {
+        if (filteredItems.get() instanceof FilteredList<T> current) {
+            current.predicateProperty().unbind();
+        }
+    }
+
+    /**
+     * Discards the cached results of the given filter. Filters are expected to always return the same
+     * result for the same item. When the result of a filter changes, e.g. because it compares the items
+     * with the current time, then this method has to be called so that the filter will be evaluated
+     * again. Only needed when filtering in the background (see {@link #executorProperty()}) or when
+     * showing the filter counts (see {@link #showFilterCountsProperty()}).
+     *
+     * @param filter the filter whose results have changed
+     */
+    public final void invalidateFilter(Filter<T> filter) {
+        if (filterBits.remove(filter) != null) {
+            if (getExecutor() != null && getFilters().contains(filter)) {
+                filterInBackground();
+            }
+            updateFilterCounts();
+        }
+    }
+
+    /*
+     * Keeps the cached filter results in line with the items, so that toggling a filter does not
+     * require to evaluate the filters again. Items get tested right away when only a few have been
+     * added, otherwise the results get computed in the background the next time they are needed.
+     */
+    private void updateFilterBits(ListChangeListener.Change<? extends T> change) {
+        if (filterBits.isEmpty()) {
+            return;
+        }
+
+        List<? extends T> list = change.getList();
+
+        // the size of the list before the change
+        int size = list.size();
+        while (change.next()) {
+            size += change.getRemovedSize() - change.getAddedSize();
+        }
+        change.reset();
+
+        while (change.next()) {
+            if (change.wasPermutated() || change.getAddedSize() > CHUNK_SIZE) {
+                filterBits.clear();
+                return;
+            }
+
+            int from = change.getFrom();
+
+            if (change.wasUpdated()) {
+                filterBits.replaceAll((filter, bits) -> {
+                    BitSet copy = (BitSet) bits.clone();
+                    for (int i = from; i < change.getTo(); i++) {
+                        copy.set(i, filter.test(list.get(i)));
+                    }
+                    return copy;
+                });
+                continue;
+            }
+
+            int oldSize = size;
+            List<? extends T> added = change.getAddedSubList();
+
+            filterBits.replaceAll((filter, bits) -> {
+                BitSet copy = bits.get(0, from);
+
+                BitSet tail = bits.get(from + change.getRemovedSize(), oldSize);
+                for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1)) {
+                    copy.set(from + added.size() + i);
+                }
+
+                for (int i = 0; i < added.size(); i++) {
+                    if (filter.test(added.get(i))) {
+                        copy.set(from + i);
+                    }
+                }
+
+                return copy;
+            });
+
+            size = oldSize - change.getRemovedSize() + added.size();
+        }
+    }
+
+    /*
+     * Evaluates the filter predicate for a snapshot of the items on the executor. A newer
+     * evaluation cancels the one that is still running. When the user only extended the filter
+     * text then only the items of the previous result need to be tested again.
+     */
+    private void filterInBackground() {
+        cancelFilterRun();
+
+        String text = getTextFilterProvider() != null && StringUtils.isNotBlank(getFilterText()) ? getFilterText().toLowerCase() : "";
+        long predicateVersion = this.predicateVersion;
+        long itemsVersion = this.itemsVersion;
+
+        FilterRun<T> run;
+        if (isIncrementalTextFiltering() && lastResult != null && lastResultPredicateVersion == predicateVersion
+                && lastResultItemsVersion == itemsVersion && text.contains(lastResultText)) {
+            // result lists are never modified, hence they can be used without copying them. Their
+            // items already passed the selected filters.
+            run = new FilterRun<>(lastResult, List.of(), Map.of(), residualPredicate);
+        } else {
+            run = new FilterRun<>(new ArrayList<>(getItems()), new ArrayList<>(selectedFilters.values()), new HashMap<>(filterBits), residualPredicate);
+        }
+
+        currentRun = run;
+        filtering.set(true);
+
+        run.start(getExecutor()).whenComplete((result, ex) -> Platform.runLater(() -> {
+            if (currentRun != run) {
+                return;
+            }
+
+            currentRun = null;
+            filtering.set(false);
+
+            if (ex != null) {
+                LOG.log(Level.SEVERE, "error when trying to filter the items", ex);
+            } else {
+                if (this.itemsVersion == itemsVersion && usesFilterBits()) {
+                    storeBits(run);
+                }
+
+                lastResult = result;
+                lastResultText = text;
+                lastResultPredicateVersion = predicateVersion;
+                lastResultItemsVersion = itemsVersion;
+
+                // replaces all items with a single change, so the filtered items never show a partial result
+                backgroundResult.setAll(result);
+                if (filteredItems.get() != unmodifiableBackgroundResult) {
+                    releaseFilteredList();
+                    filteredItems.set(unmodifiableBackgroundResult);
+                }
+            }
+        }));
+    }
+
+    private void cancelFilterRun() {
+        if (currentRun != null) {
+            currentRun.cancel();
+            currentRun = null;
+            filtering.set(false);
+        }
+    }
+
+    /*
+     * The base class of the background evaluations. Filters get evaluated once for all items
+     * and their results are kept as bit sets, so that they can be combined one word (64 items)
+     * at a time. Large lists get split into chunks that are processed in parallel.
+     */
+    private abstract static class BitsRun<T> {
+
+        final List<T> items;
+
+        private final Map<Predicate<T>, BitSet> knownBits;
+
+        final Map<Predicate<T>, BitSet> computedBits = new ConcurrentHashMap<>();
+
+        private volatile boolean cancelled;
+
+        BitsRun(List<T> items, Map<Predicate<T>, BitSet> knownBits) {
+            this.items = items;
+            this.knownBits = knownBits;
+        }
+
+        BitSet getBits(Predicate<T> predicate) {
+            BitSet bits = knownBits.get(predicate);
+            return bits != null ? bits : computedBits.get(predicate);
+        }
+
+        /*
+         * Evaluates the given filters (or other predicates) unless their results are already known.
+         */
+        CompletableFuture<?> computeBits(Collection<? extends Predicate<T>> predicates, Executor executor) {
+            List<Predicate<T>> missing = new ArrayList<>();
+            predicates.stream().filter(predicate -> !knownBits.containsKey(predicate)).distinct().forEach(missing::add);
+
+            if (missing.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return evaluate(missing, executor).thenAccept(bits -> {
+                for (int i = 0; i < missing.size(); i++) {
+                    computedBits.put(missing.get(i), bits.get(i));
+                }
+            });
+        }
+
+        /*
+         * Tests all items with each of the given predicates.
+         */
+        CompletableFuture<List<BitSet>> evaluate(List<? extends Predicate<T>> predicates, Executor executor) {
+            return inChunks(executor, (from, to) -> {
+                List<BitSet> chunkBits = new ArrayList<>(predicates.size());
+                for (Predicate<T> predicate : predicates) {
+                    BitSet bits = new BitSet(to);
+                    for (int i = from; i < to; i++) {
+                        checkCancelled(i);
+                        if (predicate.test(items.get(i))) {
+                            bits.set(i);
+                        }
+                    }
+                    chunkBits.add(bits);
+                }
+                return chunkBits;
+            }).thenApply(chunks -> {
+                List<BitSet> result = new ArrayList<>(predicates.size());
+                for (int i = 0; i < predicates.size(); i++) {
+                    BitSet bits = new BitSet(items.size());
+                    for (List<BitSet> chunkBits : chunks) {
+                        bits.or(chunkBits.get(i));
+                    }
+                    result.add(bits);
+                }
+                return result;
+            });
+        }
+
+        /*
+         * Splits the items into chunks that get processed in parallel.
+         */
+        <R> CompletableFuture<List<R>> inChunks(Executor executor, BiFunction<Integer, Integer, R> function) {
+            int chunks = Math.max(1, (items.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+            List<CompletableFuture<R>> futures = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                int from = i * CHUNK_SIZE;
+                int to = Math.min(items.size(), from + CHUNK_SIZE);
+                futures.add(CompletableFuture.supplyAsync(() -> function.apply(from, to), executor));
+            }
+
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(it -> {
+                List<R> results = new ArrayList<>(chunks);
+                futures.forEach(future -> results.add(future.join()));
+                return results;
+            });
+        }
+
+        void checkCancelled(int index) {
+            if ((index & 1023) == 0 && cancelled) {
+                throw new CancellationException();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /*
+     * The evaluation of the filters for a snapshot of the items. Filters of the same group get
+     * combined with OR and groups with AND. The residual predicate (text and additional filter)
+     * only gets tested for the items that passed the filters, unless its results are already known.
+     */
+    private static final class FilterRun<T> extends BitsRun<T> {
+
+        private final List<List<Filter<T>>> filterGroups;
+
+        private final Predicate<T> residualPredicate;
+
+        private FilterRun(List<T> items, List<List<Filter<T>>> filterGroups, Map<Predicate<T>, BitSet> knownBits, Predicate<T> residualPredicate) {
+            super(items, knownBits);
+            this.filterGroups = filterGroups;
+            this.residualPredicate = residualPredicate;
+        }
+
+        CompletableFuture<List<T>> start(Executor executor) {
+            List<Filter<T>> filters = new ArrayList<>();
+            filterGroups.forEach(filters::addAll);
+
+            return computeBits(filters, executor).thenCompose(it -> {
+                BitSet candidates = null;
+                for (List<Filter<T>> group : filterGroups) {
+                    BitSet groupBits = new BitSet(items.size());
+                    for (Filter<T> filter : group) {
+                        groupBits.or(getBits(filter));
+                    }
+
+                    if (candidates == null) {
+                        candidates = groupBits;
+                    } else {
+                        candidates.and(groupBits);
+                    }
+                }
+
+                BitSet residualBits = residualPredicate == null ? null : getBits(residualPredicate);
+                if (residualBits != null) {
+                    if (candidates == null) {
+                        candidates = (BitSet) residualBits.clone();
+                    } else {
+                        candidates.and(residualBits);
+                    }
+                }
+
+                BitSet finalCandidates = candidates;
+                Predicate<T> predicate = residualBits == null ? residualPredicate : null;
+                return inChunks(executor, (from, to) -> filter(finalCandidates, predicate, from, to)).thenApply(chunks -> {
+                    List<T> result = new ArrayList<>();
+                    chunks.forEach(result::addAll);
+                    return result;
+                });
+            });
+        }
+
+        private List<T> filter(BitSet candidates, Predicate<T> residualPredicate, int from, int to) {
+            List<T> result = new ArrayList<>();
+
+            int i = candidates == null ? from : candidates.nextSetBit(from);
+            while (i >= 0 && i < to) {
+                checkCancelled(i);
+
+                T item = items.get(i);
+                if (residualPredicate == null || residualPredicate.test(item)) {
+                    result.add(item);
+                }
+
+                i = candidates == null ? i + 1 : candidates.nextSetBit(i + 1);
+            }
+
+            return result;
+        }
+    }
+
+    /*
+     * Counts for every filter of every group how many items match the filter, the selected
+     * filters of all other groups, and the residual predicate.
+     */
+    private static final class CountRun<T> extends BitsRun<T> {
+
+        private final List<List<Filter<T>>> groupFilters;
+
+        private final List<List<Filter<T>>> selectedFilters;
+
+        private final Predicate<T> residualPredicate;
+
+        private CountRun(List<T> items, List<List<Filter<T>>> groupFilters, List<List<Filter<T>>> selectedFilters, Map<Predicate<T>, BitSet> knownBits, Predicate<T> residualPredicate) {
+            super(items, knownBits);
+            this.groupFilters = groupFilters;
+            this.selectedFilters = selectedFilters;
+            this.residualPredicate = residualPredicate;
+        }
+
+        CompletableFuture<Map<Filter<T>, Integer>> start(Executor executor) {
+            List<Predicate<T>> predicates = new ArrayList<>();
+            groupFilters.forEach(predicates::addAll);
+            if (residualPredicate != null) {
+                predicates.add(residualPredicate);
+            }
+
+            return computeBits(predicates, executor)
+                    .thenApply(it -> count(residualPredicate == null ? null : getBits(residualPredicate)));
+        }
+
+        private Map<Filter<T>, Integer> count(BitSet residualBits) {
+            // null for groups without selected filters
+            List<BitSet> selectedBits = new ArrayList<>(selectedFilters.size());
+            for (List<Filter<T>> selected : selectedFilters) {
+                BitSet bits = null;
+                for (Filter<T> filter : selected) {
+                    if (bits == null) {
+                        bits = new BitSet(items.size());
+                    }
+                    bits.or(getBits(filter));
+                }
+                selectedBits.add(bits);
+            }
+
+            Map<Filter<T>, Integer> counts = new HashMap<>();
+
+            for (int group = 0; group < groupFilters.size(); group++) {
+                checkCancelled(0);
+
+                BitSet others = residualBits == null ? null : (BitSet) residualBits.clone();
+                for (int otherGroup = 0; otherGroup < selectedBits.size(); otherGroup++) {
+                    BitSet bits = selectedBits.get(otherGroup);
+                    if (otherGroup != group && bits != null) {
+                        if (others == null) {
+                            others = (BitSet) bits.clone();
+                        } else {
+                            others.and(bits);
+                        }
+                    }
+                }
+
+                for (Filter<T> filter : groupFilters.get(group)) {
+                    BitSet bits = getBits(filter);
+                    if (others == null) {
+                        counts.put(filter, bits.cardinality());
+                    } else {
+                        BitSet matches = (BitSet) others.clone();
+                        matches.and(bits);
+                        counts.put(filter, matches.cardinality());
+                    }
+                }
+            }
+
+            return counts;
+        }
     }
 
     @Override
@@ -314,6 +937,141 @@ public class FilterView<T> extends Control {
         return filteredItems.getReadOnlyProperty();
     }
 
+    private final ReadOnlyBooleanWrapper filtering = new ReadOnlyBooleanWrapper(this, "filtering");
+
+    public final boolean isFiltering() {
+        return filtering.get();
+    }
+
+    /**
+     * A flag indicating that the filter predicate is currently being evaluated in the background.
+     * Applications can use it to show a progress indicator.
+     *
+     * @return true while the items are being filtered
+     * @see #executorProperty()
+     */
+    public final ReadOnlyBooleanProperty filteringProperty() {
+        return filtering.getReadOnlyProperty();
+    }
+
+    private final ObjectProperty<Executor> executor = new SimpleObjectProperty<>(this, "executor");
+
+    public final Executor getExecutor() {
+        return executor.get();
+    }
+
+    /**
+     * The executor used for filtering the items in the background. If no executor has been set then the
+     * items will be filtered on the UI thread (the default). Otherwise the filter predicate will be evaluated
+     * on the executor, for large lists in several chunks in parallel, and the filtered items will be updated
+     * with a single change on the UI thread once the evaluation has finished. The filtered items remain the
+     * same list for all results, but the list gets exchanged when the executor is set or removed, so views
+     * wrapping the {@link #getFilteredItems() filtered items} themselves should do so after setting the
+     * executor. An evaluation that is still running when the filters change again will be cancelled. The
+     * filter predicates must be thread-safe when an executor is used.
+     *
+     * @return the executor used for filtering
+     * @see #sharedExecutor()
+     */
+    public final ObjectProperty<Executor> executorProperty() {
+        return executor;
+    }
+
+    public final void setExecutor(Executor executor) {
+        this.executor.set(executor);
+    }
+
+    /**
+     * Returns an executor that can be shared by all filter views of an application. It uses at most
+     * as many threads as there are processors.
+     *
+     * @return a bounded executor shared by all filter views
+     * @see #executorProperty()
+     */
+    public static Executor sharedExecutor() {
+        return SharedExecutors.BOUNDED;
+    }
+
+    /*
+     * Lazily creates the executor (only when it gets used for the first time).
+     */
+    private static final class SharedExecutors {
+
+        private static final Executor BOUNDED = ExecutorUtil.newBoundedExecutor("Filter View Thread", Runtime.getRuntime().availableProcessors());
+    }
+
+    private final BooleanProperty incrementalTextFiltering = new SimpleBooleanProperty(this, "incrementalTextFiltering", true);
+
+    public final boolean isIncrementalTextFiltering() {
+        return incrementalTextFiltering.get();
+    }
+
+    /**
+     * Determines whether a background evaluation (see {@link #executorProperty()}) only tests the items
+     * of the previous result when the user extends the filter text, e.g. from "mil" to "mill". Typing
+     * then gets cheaper with every character. All items will be tested again when the text gets shorter
+     * or when any of the other filters change. This requires the predicates returned by the
+     * {@link #textFilterProviderProperty() text filter provider} to never match an item for a text when
+     * they do not match it for a part of that text, which is the case for the usual "contains" or
+     * "starts with" checks. Applications using other kinds of text predicates, e.g. regular expressions,
+     * have to disable this flag.
+     *
+     * @return true if the text filtering is incremental (default is "true")
+     */
+    public final BooleanProperty incrementalTextFilteringProperty() {
+        return incrementalTextFiltering;
+    }
+
+    public final void setIncrementalTextFiltering(boolean incrementalTextFiltering) {
+        this.incrementalTextFiltering.set(incrementalTextFiltering);
+    }
+
+    private final BooleanProperty showFilterCounts = new SimpleBooleanProperty(this, "showFilterCounts", false);
+
+    public final boolean isShowFilterCounts() {
+        return showFilterCounts.get();
+    }
+
+    /**
+     * Determines whether the view will count for each filter how many items would match if the user
+     * selected it, and show the counts next to the names of the filters. The counts take the filter
+     * text and the selected filters of the other groups into account. They get computed in the background,
+     * on the {@link #executorProperty() executor} of the view or on the {@link #sharedExecutor() shared executor}.
+     * Each filter will be evaluated once for all items, afterwards the counts can be derived from the
+     * cached results.
+     * <p>
+     * Please note that the filters, the text filter predicates, and the additional filter predicate get
+     * evaluated on background threads when the counts are shown, even if no executor has been set for
+     * the view. They must be thread-safe in this case.
+     *
+     * @return true if the filter counts will be computed and shown (default is "false")
+     * @see #getFilterCounts()
+     */
+    public final BooleanProperty showFilterCountsProperty() {
+        return showFilterCounts;
+    }
+
+    public final void setShowFilterCounts(boolean showFilterCounts) {
+        this.showFilterCounts.set(showFilterCounts);
+    }
+
+    private final ObservableMap<Filter<T>, Integer> filterCounts = FXCollections.observableHashMap();
+
+    private final ObservableMap<Filter<T>, Integer> unmodifiableFilterCounts = FXCollections.unmodifiableObservableMap(filterCounts);
+
+    /**
+     * Returns for each filter of each group the number of items that match the filter, the selected
+     * filters of all other groups, the filter text, and the additional filter predicate. This is the
+     * number of items the view would show if the filter were the only selected filter of its group.
+     * The map will be empty unless the counts are enabled via {@link #showFilterCountsProperty()}
+     * and will be updated on the UI thread once the counts have been computed in the background.
+     *
+     * @return the number of matching items for each filter (unmodifiable)
+     */
+    public final ObservableMap<Filter<T>, Integer> getFilterCounts() {
+        return unmodifiableFilterCounts;
+    }
+
     // text filter
 
     private final StringProperty filterText = new SimpleStringProperty(this, "filterText");
@@ -393,7 +1151,12 @@ public class FilterView<T> extends Control {
 
     // additional filter predicate
 
-    private final ObjectProperty<Predicate<T>> additionalFilterPredicate = new SimpleObjectProperty<>(this, "additionalFilterPredicate", item -> true);
+    private final ObjectProperty<Predicate<T>> additionalFilterPredicate = new SimpleObjectProperty<>(this, "additionalFilterPredicate", acceptAll());
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T> acceptAll() {
+        return (Predicate<T>) ACCEPT_ALL;
+    }
 
     public final Predicate<T> getAdditionalFilterPredicate() {
         return additionalFilterPredicate.get();
@@ -2,11 +2,17 @@ package com.dlsc.gemsfx;
 
 import com.dlsc.gemsfx.skins.SearchFieldPopup;
 import com.dlsc.gemsfx.skins.SearchFieldSkin;
+import com.dlsc.gemsfx.skins.SearchFieldSortKey;
+import com.dlsc.gemsfx.util.ExecutorUtil;
+import com.dlsc.gemsfx.util.IndexedSuggestionProvider;
 import javafx.animation.Animation;
+import javafx.animation.PauseTransition;
 import javafx.animation.RotateTransition;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -15,6 +21,7 @@ import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleListProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -47,10 +54,23 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.kordamp.ikonli.javafx.FontIcon;
 import org.kordamp.ikonli.materialdesign.MaterialDesign;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
@@ -83,6 +103,12 @@ public class SearchField<T> extends Control {
 
     private final SearchService searchService = new SearchService();
 
+    private final PauseTransition debounceTimer = new PauseTransition();
+
+    private final SearchStatisticsImpl searchStatistics = new SearchStatisticsImpl();
+
+    private final SuggestionCache<T> suggestionCache = new SuggestionCache<>();
+
     private final TextField editor = new TextField();
 
     private final SearchFieldPopup<T> popup;
@@ -170,14 +196,19 @@ public class SearchField<T> extends Control {
 
         editor.textProperty().addListener(it -> {
             if (!committing) {
+                searchStatistics.recordKeystroke();
                 if (StringUtils.isNotBlank(editor.getText())) {
-                    searchService.restart();
+                    scheduleSearch();
                 } else {
+                    debounceTimer.stop();
+                    searchService.cancel();
                     update(null);
                 }
             }
         });
 
+        debounceTimer.setOnFinished(evt -> searchService.restart());
+
         selectedItem.addListener(it -> {
             T selectedItem = getSelectedItem();
             if (selectedItem != null) {
@@ -226,6 +257,7 @@ public class SearchField<T> extends Control {
             if (getSuggestionProvider() == null) {
                 throw new IllegalArgumentException("suggestion provider can not be null");
             }
+            clearSuggestionCache();
         });
 
         comparator.addListener(it -> {
@@ -238,6 +270,35 @@ public class SearchField<T> extends Control {
             if (getMatcher() == null) {
                 throw new IllegalArgumentException("matcher can not be null");
             }
+            clearSuggestionCache();
+        });
+
+        streamingSuggestionProvider.addListener(it -> clearSuggestionCache());
+
+        suggestionCacheMode.addListener(it -> {
+            if (getSuggestionCacheMode() == null) {
+                throw new IllegalArgumentException("suggestion cache mode can not be null");
+            }
+            clearSuggestionCache();
+        });
+
+        maxSuggestions.addListener(it -> {
+            if (getMaxSuggestions() < 1) {
+                throw new IllegalArgumentException("max suggestions must be larger than zero but was " + getMaxSuggestions());
+            }
+            clearSuggestionCache();
+        });
+
+        suggestionCacheSize.addListener(it -> {
+            if (getSuggestionCacheSize() < 1) {
+                throw new IllegalArgumentException("suggestion cache size must be larger than zero but was " + getSuggestionCacheSize());
+            }
+        });
+
+        debouncePolicy.addListener(it -> {
+            if (getDebouncePolicy() == null) {
+                throw new IllegalArgumentException("debounce policy can not be null");
+            }
         });
 
         RotateTransition rotateTransition = new RotateTransition();
@@ -268,6 +329,28 @@ public class SearchField<T> extends Control {
         });
 
         searching.bind(searchService.runningProperty());
+
+        searchService.executorProperty().bind(executor);
+    }
+
+    /*
+     * Starts a new search after the delay computed by the debounce policy. The delay is
+     * implemented via a pause transition on the UI thread so that no worker thread has to
+     * sleep while the user is still typing.
+     */
+    private void scheduleSearch() {
+        debounceTimer.stop();
+
+        // results of a search for an older text are no longer of interest
+        searchService.cancel();
+
+        Duration delay = getDebouncePolicy().computeDelay(searchStatistics);
+        if (delay == null || delay.isUnknown() || delay.lessThanOrEqualTo(Duration.ZERO)) {
+            searchService.restart();
+        } else {
+            debounceTimer.setDuration(delay);
+            debounceTimer.playFromStart();
+        }
     }
 
     private void invokeCommitHandler() {
@@ -526,20 +609,47 @@ public class SearchField<T> extends Control {
         }
     }
 
+    /*
+     * The constructor of the task gets invoked on the UI thread, hence all property values
+     * required by the task get captured there.
+     */
     private class SearchTask extends Task<Collection<T>> {
 
         private final String searchText;
 
+        private final SuggestionCacheMode cacheMode = getSuggestionCacheMode();
+
+        private final int cacheSize = getSuggestionCacheSize();
+
+        private final int maxSuggestions = getMaxSuggestions();
+
+        private final BiFunction<T, String, Boolean> matcher = getMatcher();
+
+        private final StringConverter<T> converter = getConverter();
+
+        private final Comparator<T> comparator = getComparator();
+
+        private final T selectedItem = getSelectedItem();
+
+        private final StreamingSuggestionProvider<T> streamingProvider = getStreamingSuggestionProvider();
+
         public SearchTask(String searchText) {
             this.searchText = searchText;
         }
 
         @Override
         protected Collection<T> call() throws Exception {
-            Thread.sleep(250);
-
             if (!isCancelled() && StringUtils.isNotBlank(searchText)) {
-                return getSuggestionProvider().call(new SearchFieldSuggestionRequest() {
+                if (cacheMode != SuggestionCacheMode.NONE) {
+                    Collection<T> cachedResult = suggestionCache.lookup(searchText, cacheMode, matcher, cacheSize);
+                    if (cachedResult != null) {
+                        return selectBest(cachedResult);
+                    }
+                }
+
+                AtomicBoolean truncated = new AtomicBoolean();
+
+                SearchFieldSuggestionRequest request = new SearchFieldSuggestionRequest() {
                     @Override
                     public boolean isCancelled() {
                         return SearchTask.this.isCancelled();
@@ -549,17 +659,188 @@ public class SearchField<T> extends Control {
                     public String getUserText() {
                         return searchText;
                     }
-                });
+
+                    @Override
+                    public int getMaxSuggestions() {
+                        return maxSuggestions;
+                    }
+
+                    @Override
+                    public void markTruncated() {
+                        truncated.set(true);
+                    }
+                };
+
+                Collection<T> result;
+
+                if (streamingProvider != null) {
+                    result = stream(request);
+                } else {
+                    long startTime = System.nanoTime();
+                    result = getSuggestionProvider().call(request);
+                    searchStatistics.recordProviderLatency(System.nanoTime() - startTime);
+                }
+
+                if (cacheMode != SuggestionCacheMode.NONE && result != null && !isCancelled()) {
+                    // a result that has been cut off by the provider can not be refined later on
+                    suggestionCache.put(searchText, result, !truncated.get() && result.size() < maxSuggestions, cacheSize);
+                }
+
+                return selectBest(result);
             }
 
             return Collections.emptyList();
         }
+
+        /*
+         * Invokes the streaming provider. Every batch gets merged with the previous batches on the
+         * calling thread, items delivered more than once (e.g. by a local and a remote source) are
+         * only kept once. Only the latest merged result will be handed over to the UI thread, and
+         * only if the UI thread has already processed the previous one.
+         */
+        private Collection<T> stream(SearchFieldSuggestionRequest request) throws Exception {
+            Set<T> allItems = new LinkedHashSet<>();
+            AtomicReference<Collection<T>> latest = new AtomicReference<>();
+            AtomicBoolean publishing = new AtomicBoolean();
+            AtomicBoolean done = new AtomicBoolean();
+
+            long startTime = System.nanoTime();
+
+            streamingProvider.provide(request, batch -> {
+                if (isCancelled()) {
+                    throw new CancellationException("search for \"" + searchText + "\" has been cancelled");
+                }
+
+                if (done.get() || batch == null || batch.isEmpty()) {
+                    return;
+                }
+
+                Collection<T> snapshot;
+                synchronized (allItems) {
+                    if (allItems.isEmpty()) {
+                        searchStatistics.recordProviderLatency(System.nanoTime() - startTime);
+                    }
+                    allItems.addAll(batch);
+                    snapshot = selectBest(new ArrayList<>(allItems));
+                }
+
+                latest.set(snapshot);
+
+                if (publishing.compareAndSet(false, true)) {
+                    Platform.runLater(() -> {
+                        publishing.set(false);
+                        Collection<T> suggestions = latest.getAndSet(null);
+                        if (suggestions != null && !isCancelled() && !isDone()) {
+                            SearchField.this.update(suggestions);
+                            SearchField.this.fireEvent(new SearchEvent(SearchEvent.SEARCH_UPDATED, searchText));
+                        }
+                    });
+                }
+            });
+
+            done.set(true);
+
+            synchronized (allItems) {
+                return new ArrayList<>(allItems);
+            }
+        }
+
+        /*
+         * Keeps only the best suggestions (based on the same order used by the popup) by using
+         * a bounded heap. The worst suggestion found so far is always at the head of the heap.
+         */
+        private Collection<T> selectBest(Collection<T> result) {
+            if (result == null || result.size() <= maxSuggestions) {
+                return result;
+            }
+
+            String lowerCaseSearchText = searchText.toLowerCase();
+            Comparator<SearchFieldSortKey<T>> keyComparator = (key1, key2) -> SearchFieldSortKey.compare(key1, key2, comparator);
+
+            PriorityQueue<SearchFieldSortKey<T>> heap = new PriorityQueue<>(maxSuggestions + 1, keyComparator.reversed());
+            for (T item : result) {
+                SearchFieldSortKey<T> key = SearchFieldSortKey.create(item, converter, lowerCaseSearchText, selectedItem);
+                if (heap.size() < maxSuggestions) {
+                    heap.add(key);
+                } else if (keyComparator.compare(key, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(key);
+                }
+            }
+
+            List<T> best = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                best.add(heap.poll().getItem());
+            }
+            Collections.reverse(best);
+
+            return best;
+        }
+    }
+
+    private final ObjectProperty<Executor> executor = new SimpleObjectProperty<>(this, "executor");
+
+    public final Executor getExecutor() {
+        return executor.get();
+    }
+
+    /**
+     * The executor used for running the searches in the background. If no executor has been
+     * set then the default executor of {@link Service} will be used. Screens with many search fields
+     * should use a shared executor so that the number of threads stays constant. Cancelling a search
+     * (e.g. because the user typed another character) interrupts the thread running the search, so
+     * suggestion providers performing blocking I/O return as quickly as possible.
+     *
+     * @return the executor used for the searches
+     * @see #sharedExecutor()
+     * @see #virtualThreadExecutor()
+     */
+    public final ObjectProperty<Executor> executorProperty() {
+        return executor;
+    }
+
+    public final void setExecutor(Executor executor) {
+        this.executor.set(executor);
+    }
+
+    /**
+     * Returns an executor that can be shared by all search fields of an application. It never uses more
+     * threads than half the number of available processors (but at least two).
+     *
+     * @return a bounded executor shared by all search fields
+     * @see #executorProperty()
+     */
+    public static Executor sharedExecutor() {
+        return SharedExecutors.BOUNDED;
+    }
+
+    /**
+     * Returns an executor that runs each search on its own virtual thread. Requires Java 21 or later,
+     * on older runtimes a cached pool of platform threads will be used.
+     *
+     * @return an executor based on virtual threads
+     * @see #executorProperty()
+     * @see ExecutorUtil#newVirtualThreadPerTaskExecutor(String)
+     */
+    public static Executor virtualThreadExecutor() {
+        return SharedExecutors.VIRTUAL;
+    }
+
+    /*
+     * Lazily creates the executors (only when they get used for the first time).
+     */
+    private static final class SharedExecutors {
+
+        private static final Executor BOUNDED = ExecutorUtil.newBoundedExecutor("Search Field Thread", Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+
+        private static final Executor VIRTUAL = ExecutorUtil.newVirtualThreadPerTaskExecutor("Search Field Thread");
     }
 
     /**
      * Cancels the current search in progress.
      */
     public final void cancel() {
+        debounceTimer.stop();
         searchService.cancel();
         getProperties().put("cancelled", "");
         setSelectedItem(null);
@@ -578,7 +859,7 @@ public class SearchField<T> extends Control {
             return;
         }
 
-        suggestions.setAll(newSuggestions);
+        applySuggestions(newSuggestions);
 
         String searchText = editor.getText();
         if (StringUtils.isNotBlank(searchText)) {
@@ -608,6 +889,65 @@ public class SearchField<T> extends Control {
         }
     }
 
+    /*
+     * Only applies the differences between the current and the new suggestions, so that the
+     * sorted list of the popup and the list cells only have to deal with the suggestions that
+     * have actually been added or removed. Removed suggestions get removed in a single change,
+     * new suggestions get inserted at their positions, one change per run of consecutive new
+     * suggestions, so that the list ends up in the order of the provider. If the suggestions
+     * that are kept have changed their order, then the whole list gets replaced.
+     */
+    private void applySuggestions(Collection<T> newSuggestions) {
+        if (suggestions.isEmpty() || newSuggestions.isEmpty()) {
+            suggestions.setAll(newSuggestions);
+            return;
+        }
+
+        Set<T> newItems = new HashSet<>(newSuggestions);
+        Set<T> oldItems = new HashSet<>(suggestions);
+
+        // duplicates can not be handled by a keyed diff
+        if (newItems.size() != newSuggestions.size() || oldItems.size() != suggestions.size()) {
+            suggestions.setAll(newSuggestions);
+            return;
+        }
+
+        List<T> keptItems = new ArrayList<>();
+        for (T item : newSuggestions) {
+            if (oldItems.contains(item)) {
+                keptItems.add(item);
+            }
+        }
+
+        List<T> remainingItems = new ArrayList<>(suggestions);
+        remainingItems.retainAll(newItems);
+
+        if (!remainingItems.equals(keptItems)) {
+            suggestions.setAll(newSuggestions);
+            return;
+        }
+
+        suggestions.retainAll(newItems);
+
+        int index = 0;
+        List<T> addedItems = new ArrayList<>();
+        for (T item : newSuggestions) {
+            if (oldItems.contains(item)) {
+                if (!addedItems.isEmpty()) {
+                    suggestions.addAll(index - addedItems.size(), addedItems);
+                    addedItems.clear();
+                }
+            } else {
+                addedItems.add(item);
+            }
+            index++;
+        }
+
+        if (!addedItems.isEmpty()) {
+            suggestions.addAll(index - addedItems.size(), addedItems);
+        }
+    }
+
     @Override
     protected Skin<?> createDefaultSkin() {
         return new SearchFieldSkin<>(this);
@@ -871,6 +1211,71 @@ public class SearchField<T> extends Control {
         this.suggestionProvider.set(suggestionProvider);
     }
 
+    private final ObjectProperty<StreamingSuggestionProvider<T>> streamingSuggestionProvider = new SimpleObjectProperty<>(this, "streamingSuggestionProvider");
+
+    public final StreamingSuggestionProvider<T> getStreamingSuggestionProvider() {
+        return streamingSuggestionProvider.get();
+    }
+
+    /**
+     * A provider that delivers the suggestions for the current search text in several batches,
+     * e.g. first the results of a fast local cache and then the results of a slow remote
+     * service. The batches will be shown as soon as they arrive, so the user does not have to wait
+     * for the slowest source. Items delivered by several batches will only be shown once. If this
+     * provider is set, then it will be used instead of the regular suggestion provider.
+     *
+     * @return the streaming suggestion provider
+     * @see #suggestionProviderProperty()
+     */
+    public final ObjectProperty<StreamingSuggestionProvider<T>> streamingSuggestionProviderProperty() {
+        return streamingSuggestionProvider;
+    }
+
+    public final void setStreamingSuggestionProvider(StreamingSuggestionProvider<T> streamingSuggestionProvider) {
+        this.streamingSuggestionProvider.set(streamingSuggestionProvider);
+    }
+
+    /**
+     * A suggestion provider that can deliver its results in several batches.
+     *
+     * @param <T> the type of the suggestions
+     * @see SearchField#streamingSuggestionProviderProperty()
+     */
+    @FunctionalInterface
+    public interface StreamingSuggestionProvider<T> {
+
+        /**
+         * Looks up the suggestions for the given request and passes them to the sink, one batch at a
+         * time. The method gets invoked on a background thread and may block until all of its sources have
+         * delivered their results. Batches passed to the sink after the method has returned will be ignored.
+         * Once the request has been cancelled the sink will throw a {@link CancellationException}, so that the
+         * provider stops as early as possible.
+         *
+         * @param request the suggestion request
+         * @param sink    the consumer for the batches of suggestions (thread-safe)
+         * @throws Exception if the suggestions can not be looked up
+         */
+        void provide(SearchFieldSuggestionRequest request, Consumer<Collection<T>> sink) throws Exception;
+    }
+
+    /**
+     * Creates a suggestion provider that searches the given items via an index instead of testing
+     * each item individually. This is the preferred way of searching large local collections with hundreds
+     * of thousands of items. If the collection is an observable list then the index will be kept up-to-date
+     * when items are being added or removed. The converter should be the same converter that is used by
+     * the field.
+     *
+     * @param items     the items to search
+     * @param converter the converter used for turning the items into searchable text
+     * @param <T>       the type of the items
+     * @return a new indexed suggestion provider
+     * @see #setSuggestionProvider(Callback)
+     * @see IndexedSuggestionProvider
+     */
+    public static <T> IndexedSuggestionProvider<T> indexedSuggestionProvider(Collection<T> items, StringConverter<T> converter) {
+        return new IndexedSuggestionProvider<>(items, converter);
+    }
+
     private final ObjectProperty<StringConverter<T>> converter = new SimpleObjectProperty<>(this, "converter");
 
     public final StringConverter<T> getConverter() {
@@ -947,6 +1352,411 @@ public class SearchField<T> extends Control {
         autoCommitOnFocusLostProperty().set(value);
     }
 
+    private final IntegerProperty maxSuggestions = new SimpleIntegerProperty(this, "maxSuggestions", Integer.MAX_VALUE);
+
+    public final int getMaxSuggestions() {
+        return maxSuggestions.get();
+    }
+
+    /**
+     * The maximum number of suggestions that will be shown by the field. If the suggestion provider
+     * returns more items than this, then only the best matches will be kept (based on the same order
+     * that is used for the list of suggestions in the popup). The limit is also passed on to the
+     * provider so that it can stop looking for more suggestions early. The default value is
+     * {@link Integer#MAX_VALUE}, which means that all suggestions will be shown.
+     *
+     * @return the maximum number of suggestions
+     * @see SearchFieldSuggestionRequest#getMaxSuggestions()
+     */
+    public final IntegerProperty maxSuggestionsProperty() {
+        return maxSuggestions;
+    }
+
+    public final void setMaxSuggestions(int maxSuggestions) {
+        this.maxSuggestions.set(maxSuggestions);
+    }
+
+    /**
+     * The different modes supported by the suggestion cache of the field.
+     *
+     * @see SearchField#suggestionCacheModeProperty()
+     */
+    public enum SuggestionCacheMode {
+
+        /**
+         * The suggestion provider will be called for every search.
+         */
+        NONE,
+
+        /**
+         * The results of the suggestion provider are stored in a cache keyed by the text
+         * entered by the user. The provider will not be called again for a text that has already
+         * been searched for recently.
+         */
+        LRU,
+
+        /**
+         * Same as {@link #LRU}, but in addition, when the user extends a text that has already been
+         * searched for, then the previous results will be narrowed down in memory via the matcher instead of
+         * calling the suggestion provider again. This mode must only be used if the matcher accepts exactly
+         * those items that the provider would return for a given text.
+         *
+         * @see SearchField#matcherProperty()
+         */
+        REFINE
+    }
+
+    private final ObjectProperty<SuggestionCacheMode> suggestionCacheMode = new SimpleObjectProperty<>(this, "suggestionCacheMode", SuggestionCacheMode.NONE);
+
+    public final SuggestionCacheMode getSuggestionCacheMode() {
+        return suggestionCacheMode.get();
+    }
+
+    /**
+     * Determines if and how the field caches the results returned by the suggestion provider. Caching
+     * is useful when the provider calls a remote backend and the results for a given text do not change
+     * while the user is typing. The default is {@link SuggestionCacheMode#NONE}. The cache gets cleared
+     * automatically when the suggestion provider, the streaming suggestion provider, or the matcher are changed.
+     *
+     * @return the suggestion cache mode
+     * @see #clearSuggestionCache()
+     * @see #suggestionCacheSizeProperty()
+     */
+    public final ObjectProperty<SuggestionCacheMode> suggestionCacheModeProperty() {
+        return suggestionCacheMode;
+    }
+
+    public final void setSuggestionCacheMode(SuggestionCacheMode suggestionCacheMode) {
+        this.suggestionCacheMode.set(suggestionCacheMode);
+    }
+
+    private final IntegerProperty suggestionCacheSize = new SimpleIntegerProperty(this, "suggestionCacheSize", 50);
+
+    public final int getSuggestionCacheSize() {
+        return suggestionCacheSize.get();
+    }
+
+    /**
+     * The maximum number of search texts for which the suggestion cache keeps results. The least
+     * recently used entries will be evicted first. The default size is 50.
+     *
+     * @return the maximum number of cached searches
+     * @see #suggestionCacheModeProperty()
+     */
+    public final IntegerProperty suggestionCacheSizeProperty() {
+        return suggestionCacheSize;
+    }
+
+    public final void setSuggestionCacheSize(int suggestionCacheSize) {
+        this.suggestionCacheSize.set(suggestionCacheSize);
+    }
+
+    /**
+     * Removes all entries from the suggestion cache. Applications need to call this method
+     * when the data returned by the suggestion provider has changed.
+     *
+     * @see #suggestionCacheModeProperty()
+     */
+    public final void clearSuggestionCache() {
+        suggestionCache.clear();
+    }
+
+    /*
+     * A small LRU cache for the results of the suggestion provider. The cache gets accessed by the
+     * worker threads of the search service, hence the synchronization.
+     */
+    private static final class SuggestionCache<T> {
+
+        private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        synchronized Collection<T> lookup(String text, SuggestionCacheMode mode, BiFunction<T, String, Boolean> matcher, int maxSize) {
+            Entry<T> entry = entries.get(text);
+            if (entry != null) {
+                return entry.items;
+            }
+
+            if (mode != SuggestionCacheMode.REFINE) {
+                return null;
+            }
+
+            // find the results of the longest text that the current text extends
+            for (int length = text.length() - 1; length > 0; length--) {
+                Entry<T> superset = entries.get(text.substring(0, length));
+                if (superset != null && superset.complete) {
+                    List<T> refined = new ArrayList<>();
+                    for (T item : superset.items) {
+                        if (matcher.apply(item, text)) {
+                            refined.add(item);
+                        }
+                    }
+
+                    List<T> result = Collections.unmodifiableList(refined);
+                    store(text, new Entry<>(result, true), maxSize);
+                    return result;
+                }
+            }
+
+            return null;
+        }
+
+        synchronized void put(String text, Collection<T> result, boolean complete, int maxSize) {
+            store(text, new Entry<>(Collections.unmodifiableList(new ArrayList<>(result)), complete), maxSize);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        private void store(String text, Entry<T> entry, int maxSize) {
+            entries.put(text, entry);
+
+            Iterator<Map.Entry<String, Entry<T>>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        /*
+         * An entry is "complete" if it contains all items matching its text, i.e. it has not
+         * been cut off by the provider because of the maximum number of suggestions or because
+         * the provider reported it as truncated.
+         */
+        private static final class Entry<T> {
+
+            private final List<T> items;
+
+            private final boolean complete;
+
+            Entry(List<T> items, boolean complete) {
+                this.items = items;
+                this.complete = complete;
+            }
+        }
+    }
+
+    private final ObjectProperty<DebouncePolicy> debouncePolicy = new SimpleObjectProperty<>(this, "debouncePolicy", DebouncePolicy.fixed(Duration.millis(250)));
+
+    public final DebouncePolicy getDebouncePolicy() {
+        return debouncePolicy.get();
+    }
+
+    /**
+     * The policy used for determining how long the field waits after a keystroke before it
+     * calls the suggestion provider. Each keystroke restarts the waiting period, so only the text
+     * that the user has settled on will be looked up. The default policy uses a fixed delay of
+     * 250 milliseconds.
+     *
+     * @return the debounce policy
+     * @see DebouncePolicy#fixed(Duration)
+     * @see DebouncePolicy#none()
+     * @see DebouncePolicy#adaptive()
+     */
+    public final ObjectProperty<DebouncePolicy> debouncePolicyProperty() {
+        return debouncePolicy;
+    }
+
+    public final void setDebouncePolicy(DebouncePolicy debouncePolicy) {
+        this.debouncePolicy.set(debouncePolicy);
+    }
+
+    /**
+     * Returns statistics about the recent searches performed by this field, e.g. the average
+     * latency of the suggestion provider. The statistics are being used by the debounce policy.
+     *
+     * @return the search statistics
+     * @see #debouncePolicyProperty()
+     */
+    public final SearchStatistics getSearchStatistics() {
+        return searchStatistics;
+    }
+
+    /**
+     * Statistics collected by the search field while the user is typing and while the
+     * suggestion provider is being called.
+     *
+     * @see SearchField#getSearchStatistics()
+     */
+    public interface SearchStatistics {
+
+        /**
+         * Returns the (exponentially weighted) average time the suggestion provider needed
+         * to return its results.
+         *
+         * @return the average provider latency or {@link Duration#UNKNOWN} if no search has been performed, yet
+         */
+        Duration getAverageProviderLatency();
+
+        /**
+         * Returns the (exponentially weighted) average time between two consecutive keystrokes
+         * of the user.
+         *
+         * @return the average typing interval or {@link Duration#UNKNOWN} if the user has not been typing, yet
+         */
+        Duration getAverageTypingInterval();
+    }
+
+    /**
+     * A policy used for computing the delay between a keystroke of the user and the invocation of the
+     * suggestion provider.
+     *
+     * @see SearchField#debouncePolicyProperty()
+     */
+    @FunctionalInterface
+    public interface DebouncePolicy {
+
+        /**
+         * Computes the delay that the field will wait before it calls the suggestion provider.
+         * A delay of zero means that the provider will be called immediately.
+         *
+         * @param statistics the statistics about the recent searches of the field
+         * @return the delay
+         */
+        Duration computeDelay(SearchStatistics statistics);
+
+        /**
+         * Returns a policy that always waits for the given amount of time.
+         *
+         * @param delay the delay
+         * @return a fixed delay policy
+         */
+        static DebouncePolicy fixed(Duration delay) {
+            Objects.requireNonNull(delay, "delay can not be null");
+            return statistics -> delay;
+        }
+
+        /**
+         * Returns a policy that does not wait at all, which means that the suggestion
+         * provider will be called for every keystroke.
+         *
+         * @return a policy without any delay
+         */
+        static DebouncePolicy none() {
+            return statistics -> Duration.ZERO;
+        }
+
+        /**
+         * Returns an adaptive policy with a minimum delay of zero and a maximum delay of
+         * 500 milliseconds.
+         *
+         * @return an adaptive policy
+         * @see #adaptive(Duration, Duration)
+         */
+        static DebouncePolicy adaptive() {
+            return adaptive(Duration.ZERO, Duration.millis(500));
+        }
+
+        /**
+         * Returns a policy that adapts the delay to the latency of the suggestion provider and the typing
+         * speed of the user. A provider that answers in less than five milliseconds will be called without any
+         * delay. Slower providers will be called once the user pauses for a little longer than usual between
+         * two keystrokes, but never later than after the latency of the provider itself. This way cheap providers
+         * are called often and expensive ones are only called when the user is likely to have finished typing.
+         *
+         * @param minDelay the minimum delay
+         * @param maxDelay the maximum delay
+         * @return an adaptive policy
+         */
+        static DebouncePolicy adaptive(Duration minDelay, Duration maxDelay) {
+            Objects.requireNonNull(minDelay, "min delay can not be null");
+            Objects.requireNonNull(maxDelay, "max delay can not be null");
+
+            if (minDelay.greaterThan(maxDelay)) {
+                throw new IllegalArgumentException("min delay can not be larger than max delay");
+            }
+
+            return statistics -> {
+                Duration latency = statistics.getAverageProviderLatency();
+                if (latency.isUnknown()) {
+                    return maxDelay;
+                }
+
+                if (latency.lessThan(Duration.millis(5))) {
+                    return minDelay;
+                }
+
+                Duration delay = latency;
+
+                Duration typingInterval = statistics.getAverageTypingInterval();
+                if (!typingInterval.isUnknown()) {
+                    delay = Duration.millis(Math.min(latency.toMillis(), typingInterval.toMillis() * 1.5));
+                }
+
+                if (delay.lessThan(minDelay)) {
+                    return minDelay;
+                }
+
+                if (delay.greaterThan(maxDelay)) {
+                    return maxDelay;
+                }
+
+                return delay;
+            };
+        }
+    }
+
+    /*
+     * Keeps exponentially weighted moving averages of the provider latency and the typing interval.
+     * The latency gets recorded on the worker thread of the search service, the keystrokes on the
+     * UI thread.
+     */
+    private static final class SearchStatisticsImpl implements SearchStatistics {
+
+        private static final double WEIGHT = 0.3;
+
+        // keystrokes further apart than this are considered to start a new typing session
+        private static final long MAX_TYPING_INTERVAL_NANOS = 2_000_000_000L;
+
+        private double providerLatencyNanos = -1;
+
+        private double typingIntervalNanos = -1;
+
+        // System.nanoTime() can be negative, hence a separate flag for the first keystroke
+        private boolean keystrokeRecorded;
+
+        private long lastKeystroke;
+
+        synchronized void recordProviderLatency(long nanos) {
+            providerLatencyNanos = average(providerLatencyNanos, nanos);
+        }
+
+        synchronized void recordKeystroke() {
+            long now = System.nanoTime();
+            if (keystrokeRecorded) {
+                long interval = now - lastKeystroke;
+                if (interval < MAX_TYPING_INTERVAL_NANOS) {
+                    typingIntervalNanos = average(typingIntervalNanos, interval);
+                }
+            }
+            lastKeystroke = now;
+            keystrokeRecorded = true;
+        }
+
+        private static double average(double average, long sample) {
+            if (average < 0) {
+                return sample;
+            }
+            return WEIGHT * sample + (1 - WEIGHT) * average;
+        }
+
+        @Override
+        public synchronized Duration getAverageProviderLatency() {
+            return toDuration(providerLatencyNanos);
+        }
+
+        @Override
+        public synchronized Duration getAverageTypingInterval() {
+            return toDuration(typingIntervalNanos);
+        }
+
+        private static Duration toDuration(double nanos) {
+            if (nanos < 0) {
+                return Duration.UNKNOWN;
+            }
+            return Duration.millis(nanos / 1_000_000d);
+        }
+    }
+
     /**
      * Represents a suggestion fetch request.
      */
@@ -965,6 +1775,27 @@ public class SearchField<T> extends Control {
          * @return {@link String} containing the user text
          */
         String getUserText();
+
+        /**
+         * Get the maximum number of suggestions that the field will show. Providers can
+         * use this value to stop searching once enough suggestions have been found.
+         *
+         * @return the maximum number of suggestions
+         * @see SearchField#maxSuggestionsProperty()
+         */
+        default int getMaxSuggestions() {
+            return Integer.MAX_VALUE;
+        }
+
+        /**
+         * Informs the field that the provider has not returned all matching items, e.g. because it
+         * stops searching after a fixed number of results. Such results will not be narrowed down by
+         * the suggestion cache when the user keeps typing, because the missing items might match, too.
+         *
+         * @see SuggestionCacheMode#REFINE
+         */
+        default void markTruncated() {
+        }
     }
 
     /**
@@ -986,6 +1817,14 @@ public class SearchField<T> extends Control {
          */
         public static final EventType<SearchEvent> SEARCH_FINISHED = new EventType<>(Event.ANY, "SEARCH_FINISHED");
 
+        /**
+         * An event that gets fired when the field has received another batch of suggestions
+         * from a streaming suggestion provider while the search is still ongoing.
+         *
+         * @see SearchField#streamingSuggestionProviderProperty()
+         */
+        public static final EventType<SearchEvent> SEARCH_UPDATED = new EventType<>(Event.ANY, "SEARCH_UPDATED");
+
         private final String text;
 
         public SearchEvent(EventType<? extends SearchEvent> eventType, String text) {
@@ -1082,6 +1921,10 @@ public class SearchField<T> extends Control {
         private final Text text2 = new Text();
         private final Text text3 = new Text();
 
+        // the cell text and the search text that the current highlighting was computed for
+        private String highlightedCellText;
+        private String highlightedText;
+
         public SearchFieldListCell(SearchField<T> searchField) {
             this.searchField = searchField;
 
@@ -1103,8 +1946,18 @@ public class SearchField<T> extends Control {
             super.updateItem(item, empty);
 
             if (item != null && !empty) {
-                String cellText = searchField.getConverter().toString(item);
                 String text = searchField.getEditor().getText();
+
+                // the highlighting only needs to be computed again if the text of the item (which might have
+                // been changed in place or by a new converter) or the search text have changed
+                String cellText = searchField.getConverter().toString(item);
+                if (Objects.equals(cellText, highlightedCellText) && Objects.equals(text, highlightedText)) {
+                    return;
+                }
+
+                highlightedCellText = cellText;
+                highlightedText = text;
+
                 int index = cellText.toLowerCase().indexOf(text.toLowerCase());
                 if (index >= 0) {
                     text1.setText(cellText.substring(0, index));
@@ -1116,6 +1969,9 @@ public class SearchField<T> extends Control {
                     text3.setText("");
                 }
             } else {
+                highlightedCellText = null;
+                highlightedText = null;
+
                 text1.setText("");
                 text2.setText("");
                 text3.setText("");
@@ -18,8 +18,12 @@ import javafx.scene.control.Control;
 import javafx.scene.control.Skin;
 import javafx.scene.control.TableView;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.function.Predicate;
 
 public class ColumnBrowser<S> extends Control {
 
@@ -37,13 +41,17 @@ public class ColumnBrowser<S> extends Control {
                 }
                 for (ColumnValuesList<S, ?> list : c.getRemoved()) {
                     list.getListView().getSelectionModel().selectedIndexProperty().removeListener(filterListener);
+                    indices.remove(list);
                 }
             }
         });
 
         filter();
 
-        items.addListener((Observable evt) -> filter());
+        items.addListener((Observable evt) -> {
+            indices.clear();
+            filter();
+        });
     }
 
     public ColumnBrowser(TableView<S> tableView) {
@@ -90,35 +98,82 @@ public class ColumnBrowser<S> extends Control {
         return columnValuesLists;
     }
 
+    /**
+     * Discards the indices that map the values of the columns to the rows containing them and
+     * filters the items again. The indices get built once and only get discarded automatically
+     * when the list of items changes or when the cell value factory of a column gets replaced.
+     * Applications that modify the items "in place" (e.g. change a property of an item that
+     * is shown in one of the columns) need to call this method afterwards, otherwise the browser
+     * keeps using the old values.
+     */
+    public final void invalidateIndex() {
+        indices.clear();
+        filter();
+    }
+
+    // one index per values list, built lazily and dropped when the items change
+    private final Map<ColumnValuesList<S, ?>, ColumnValuesIndex<S, ?>> indices = new HashMap<>();
+
     private void filter() {
-        Predicate<S> predicate = createPredicate();
-        if (predicate == null) {
+        BitSet rows = getSelectedRows(columnValuesLists.size());
+        if (rows == null) {
             filteredItems.setAll(items);
         } else {
-            filteredItems.setAll(items.filtered(predicate));
+            List<S> result = new ArrayList<>(rows.cardinality());
+            for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+                result.add(items.get(i));
+            }
+            filteredItems.setAll(result);
         }
     }
 
-    private Predicate<S> createPredicate() {
-        Predicate<S> predicate = null;
-
-        for (ColumnValuesList<S, ?> list : getColumnValuesLists()) {
-            if (predicate == null) {
-                predicate = list.getPredicate();
-            } else {
-                predicate = predicate.and(list.getPredicate());
-            }
+    @SuppressWarnings("unchecked")
+    <T> ColumnValuesIndex<S, T> getIndex(ColumnValuesList<S, T> list) {
+        ColumnValuesIndex<S, T> index = (ColumnValuesIndex<S, T>) indices.get(list);
+        if (index == null || !index.isBuiltWith(list.getColumn().getCellValueFactory())) {
+            index = new ColumnValuesIndex<>(items, list.getColumn());
+            indices.put(list, index);
         }
+        return index;
+    }
 
-        return predicate;
+    /*
+     * Returns the rows that match the selections of the given list, or null if nothing is selected.
+     */
+    private <T> BitSet getSelectedRows(ColumnValuesList<S, T> list) {
+        List<T> selectedItems = list.getListView().getSelectionModel().getSelectedItems();
+        if (selectedItems.isEmpty()) {
+            return null;
+        }
+        return getIndex(list).getRows(selectedItems);
     }
 
-    ColumnValuesList<S, ?> getParentValuesList(ColumnValuesList<S, ?> list) {
-        int index = columnValuesLists.indexOf(list);
-        if (index > 0) {
-            return columnValuesLists.get(index - 1);
+    /*
+     * Returns the rows that match the selections of the first "count" lists, or null if none of
+     * them has a selection.
+     */
+    private BitSet getSelectedRows(int count) {
+        BitSet result = null;
+
+        for (int i = 0; i < count; i++) {
+            BitSet rows = getSelectedRows(columnValuesLists.get(i));
+            if (rows != null) {
+                if (result == null) {
+                    result = rows;
+                } else {
+                    result.and(rows);
+                }
+            }
         }
 
-        return null;
+        return result;
+    }
+
+    /*
+     * Returns the rows that pass the selections of all lists to the left of the given list,
+     * or null if there are no such selections.
+     */
+    BitSet getParentRows(ColumnValuesList<S, ?> list) {
+        return getSelectedRows(Math.max(0, columnValuesLists.indexOf(list)));
     }
 }
@@ -0,0 +1,135 @@
+package com.dlsc.gemsfx.incubator.columnbrowser;
+
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumn.CellDataFeatures;
+import javafx.util.Callback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * An inverted index of a single column. Each distinct value of the column gets an id, each row
+ * (index into the items of the browser) stores the id of its value, and each value stores the
+ * rows that contain it. The row lists are sorted int arrays, only values that occur in many rows
+ * use a bit set instead, so that a column of unique values (ids, names) stays linear in size.
+ * The cell value factory only gets called once per row when the index gets built.
+ */
+final class ColumnValuesIndex<S, T> {
+
+    private static final int NO_VALUE = -1;
+
+    // values that occur in more than one of this many rows use a bit set
+    private static final int DENSITY = 32;
+
+    private final Callback<CellDataFeatures<S, T>, ObservableValue<T>> valueFactory;
+
+    private final int rowCount;
+
+    // the value id of each row, NO_VALUE for null
+    private final int[] valueIds;
+
+    private final List<T> values = new ArrayList<>();
+
+    private final Map<T, Integer> ids = new HashMap<>();
+
+    // per value id either an int[] with the sorted rows or a BitSet
+    private final Object[] rows;
+
+    ColumnValuesIndex(List<S> items, TableColumn<S, T> column) {
+        valueFactory = column.getCellValueFactory();
+        rowCount = items.size();
+        valueIds = new int[rowCount];
+
+        int[] counts = new int[16];
+        for (int i = 0; i < rowCount; i++) {
+            int id = NO_VALUE;
+            if (valueFactory != null) {
+                ObservableValue<T> result = valueFactory.call(new CellDataFeatures<>(column.getTableView(), column, items.get(i)));
+                if (result != null && result.getValue() != null) {
+                    id = ids.computeIfAbsent(result.getValue(), value -> {
+                        values.add(value);
+                        return values.size() - 1;
+                    });
+                    if (id == counts.length) {
+                        counts = Arrays.copyOf(counts, counts.length * 2);
+                    }
+                    counts[id]++;
+                }
+            }
+            valueIds[i] = id;
+        }
+
+        rows = new Object[values.size()];
+        int[] filled = new int[values.size()];
+        for (int id = 0; id < rows.length; id++) {
+            rows[id] = (long) counts[id] * DENSITY > rowCount ? new BitSet(rowCount) : new int[counts[id]];
+        }
+
+        for (int i = 0; i < rowCount; i++) {
+            int id = valueIds[i];
+            if (id != NO_VALUE) {
+                if (rows[id] instanceof BitSet bits) {
+                    bits.set(i);
+                } else {
+                    ((int[]) rows[id])[filled[id]++] = i;
+                }
+            }
+        }
+    }
+
+    /*
+     * Used to detect a replaced cell value factory.
+     */
+    boolean isBuiltWith(Callback<CellDataFeatures<S, T>, ObservableValue<T>> valueFactory) {
+        return this.valueFactory == valueFactory;
+    }
+
+    /*
+     * Returns the values that occur in the given rows, or all values if the rows are null.
+     */
+    List<T> getValues(BitSet parentRows) {
+        if (parentRows == null) {
+            return values;
+        }
+
+        BitSet found = new BitSet(values.size());
+        List<T> result = new ArrayList<>();
+        for (int i = parentRows.nextSetBit(0); i >= 0 && i < rowCount; i = parentRows.nextSetBit(i + 1)) {
+            int id = valueIds[i];
+            if (id != NO_VALUE && !found.get(id)) {
+                found.set(id);
+                result.add(values.get(id));
+                if (result.size() == values.size()) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Returns the rows that contain one of the given values.
+     */
+    BitSet getRows(Collection<? extends T> selectedValues) {
+        BitSet result = new BitSet(rowCount);
+        for (T value : selectedValues) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                if (rows[id] instanceof BitSet bits) {
+                    result.or(bits);
+                } else {
+                    for (int row : (int[]) rows[id]) {
+                        result.set(row);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
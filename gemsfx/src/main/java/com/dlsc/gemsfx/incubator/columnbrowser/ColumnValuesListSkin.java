@@ -9,14 +9,10 @@ import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
-import javafx.collections.ObservableList;
 import javafx.scene.control.*;
-import javafx.scene.control.TableColumn.CellDataFeatures;
 import javafx.scene.layout.BorderPane;
-import javafx.util.Callback;
 
 import java.util.*;
-import java.util.function.Predicate;
 
 public class ColumnValuesListSkin<S, T> extends
 		SkinBase<ColumnValuesList<S, T>> {
@@ -105,49 +101,25 @@ public class ColumnValuesListSkin<S, T> extends
 
 	private void updateListValues() {
 		ColumnValuesList<S, T> valuesList = getSkinnable();
-		TableColumn<S, T> column = valuesList.getColumn();
-		TableView<S> table = column.getTableView();
 		ColumnBrowser<S> columnBrowser = valuesList.getColumnBrowser();
-		ObservableList<S> items = columnBrowser.getItems();
-
-		ColumnValuesList<S, ?> parentValuesList = columnBrowser
-				.getParentValuesList(valuesList);
-
-		Set<T> newSet = new HashSet<>();
-		for (S value : items) {
-
-			if (!isIncludedByParentValueLists(columnBrowser, parentValuesList,
-					value)) {
-				continue;
-			}
-
-			Callback<CellDataFeatures<S, T>, ObservableValue<T>> valueFactory = column
-					.getCellValueFactory();
-			ObservableValue<T> result = valueFactory
-					.call(new CellDataFeatures<S, T>(table, column, value));
-			if (result != null && result.getValue() != null) {
-				newSet.add(result.getValue());
-			}
-		}
 
-		ListView<T> listView = valuesList.getListView();
+		/*
+		 * The values of this column that occur in the rows passing the
+		 * selections of the lists to the left.
+		 */
+		ColumnValuesIndex<S, T> index = columnBrowser.getIndex(valuesList);
+		BitSet parentRows = columnBrowser.getParentRows(valuesList);
+
+		Set<T> newSet = new HashSet<>(index.getValues(parentRows));
 
-		List<T> newList = sort(newSet);
+		ListView<T> listView = valuesList.getListView();
 		List<T> oldList = listView.getItems();
 
-		Iterator<T> iter = oldList.iterator();
-		while (iter.hasNext()) {
-			T item = iter.next();
-			if (!(newList.contains(item))) {
-				iter.remove();
-			}
-		}
+		oldList.removeIf(item -> !newSet.contains(item));
 
-		for (T item : newList) {
-			if (!(oldList.contains(item))) {
-				oldList.add(item);
-			}
-		}
+		Set<T> oldSet = new HashSet<>(oldList);
+		newSet.removeAll(oldSet);
+		oldList.addAll(sort(newSet));
 
 		// MultipleSelectionModel<T> selectionModel =
 		// listView.getSelectionModel();
@@ -157,26 +129,4 @@ public class ColumnValuesListSkin<S, T> extends
 		// }
 		// }
 	}
-
-	private boolean isIncludedByParentValueLists(
-			ColumnBrowser<S> columnBrowser,
-			ColumnValuesList<S, ?> parentValuesList, S value) {
-
-		while (parentValuesList != null) {
-
-			/*
-			 * Don't bother looking at this item, if the values list to the left
-			 * already says it is not included in the result set.
-			 */
-			Predicate<S> predicate = parentValuesList.getPredicate();
-			if (!predicate.test(value)) {
-				return false;
-			}
-
-			parentValuesList = columnBrowser
-					.getParentValuesList(parentValuesList);
-		}
-
-		return true;
-	}
 }
@@ -8,6 +8,9 @@ import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Label;
@@ -71,6 +74,12 @@ public class FilterViewSkin<T> extends SkinBase<FilterView<T>> {
         view.getFilterGroups().addListener((Observable it) -> updateGroups());
 
         view.getFilters().addListener((Observable it) -> updateFilters());
+        view.getFilterCounts().addListener((MapChangeListener<Filter<T>, Integer>) change -> {
+            IntegerProperty count = filterCountMap.get(change.getKey());
+            if (count != null) {
+                count.set(change.wasAdded() ? change.getValueAdded() : -1);
+            }
+        });
         view.filterTextProperty().addListener(it -> updateFilters());
         view.textFilterProviderProperty().addListener(it -> updateFilters());
 
@@ -139,10 +148,14 @@ public class FilterViewSkin<T> extends SkinBase<FilterView<T>> {
 
     private final Map<Filter, CheckMenuItem> filterItemMap = new HashMap<>();
 
+    // the number of matching items per filter, -1 if unknown
+    private final Map<Filter<T>, IntegerProperty> filterCountMap = new HashMap<>();
+
     private void updateGroups() {
         filterGroupsPane.getChildren().clear();
 
         filterItemMap.clear();
+        filterCountMap.clear();
 
         getSkinnable().getFilterGroups().forEach(group -> {
             MenuButton menuButton = new MenuButton();
@@ -170,8 +183,11 @@ public class FilterViewSkin<T> extends SkinBase<FilterView<T>> {
             menuButton.getItems().addAll(all, none, new SeparatorMenuItem());
 
             group.getFilters().forEach(filter -> {
+                IntegerProperty count = new SimpleIntegerProperty(getSkinnable().getFilterCounts().getOrDefault(filter, -1));
+                filterCountMap.put(filter, count);
+
                 CheckMenuItem item = new CheckMenuItem();
-                item.textProperty().bind(filter.nameProperty());
+                item.textProperty().bind(Bindings.createStringBinding(() -> count.get() < 0 ? filter.getName() : filter.getName() + " (" + count.get() + ")", filter.nameProperty(), count));
                 item.selectedProperty().addListener(it -> {
                     if (item.isSelected()) {
                         if (!activeFilters.contains(filter)) {
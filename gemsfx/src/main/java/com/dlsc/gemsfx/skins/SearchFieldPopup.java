@@ -53,35 +53,50 @@ public class SearchFieldPopup<T> extends PopupControl {
 
         searchField.getProperties().addListener(l);
 
-        searchField.addEventHandler(SearchField.SearchEvent.SEARCH_FINISHED, evt -> {
-            if ((!searchField.getSuggestions().isEmpty() || searchField.getPlaceholder() != null) && StringUtils.isNotBlank(searchField.getEditor().getText())) {
-
-                // assuming that we don't have to show it
-                boolean showIt = false;
-                int suggestionsItemsSize = searchField.getSuggestions().size();
-                if (suggestionsItemsSize == 0) {
-                    if (!searchField.isHidePopupWithNoChoice()) {
-                        showIt = true;
-                    }
-                } else if (suggestionsItemsSize == 1) {
-                    if (!searchField.isHidePopupWithSingleChoice() || !searchField.getMatcher().apply(searchField.getSuggestions().get(0), evt.getText())) {
-                        showIt = true;
-                    }
-                } else {
-                    // more than one suggested item, definitely show the popup
+        searchField.addEventHandler(SearchField.SearchEvent.SEARCH_STARTED, evt -> batchShown = false);
+        searchField.addEventHandler(SearchField.SearchEvent.SEARCH_FINISHED, this::updatePopup);
+        searchField.addEventHandler(SearchField.SearchEvent.SEARCH_UPDATED, this::updatePopup);
+    }
+
+    // true once the first batch of a streaming search has been shown
+    private boolean batchShown;
+
+    private void updatePopup(SearchField.SearchEvent evt) {
+        if ((!searchField.getSuggestions().isEmpty() || searchField.getPlaceholder() != null) && StringUtils.isNotBlank(searchField.getEditor().getText())) {
+
+            // assuming that we don't have to show it
+            boolean showIt = false;
+            int suggestionsItemsSize = searchField.getSuggestions().size();
+            if (suggestionsItemsSize == 0) {
+                if (!searchField.isHidePopupWithNoChoice()) {
                     showIt = true;
                 }
+            } else if (suggestionsItemsSize == 1) {
+                if (!searchField.isHidePopupWithSingleChoice() || !searchField.getMatcher().apply(searchField.getSuggestions().get(0), evt.getText())) {
+                    showIt = true;
+                }
+            } else {
+                // more than one suggested item, definitely show the popup
+                showIt = true;
+            }
+
+            if (showIt) {
+                show(searchField);
 
-                if (showIt) {
-                    show(searchField);
+                /*
+                 * Later batches of a streaming search must not reset the selection while
+                 * the user is moving through the suggestions via the keyboard.
+                 */
+                if (!batchShown || isSelectionEmpty()) {
                     selectFirstSuggestion();
-                } else {
-                    hide();
                 }
+                batchShown = evt.getEventType() == SearchField.SearchEvent.SEARCH_UPDATED;
             } else {
                 hide();
             }
-        });
+        } else {
+            hide();
+        }
     }
 
     public SearchField<T> getSearchField() {
@@ -124,6 +139,10 @@ public class SearchFieldPopup<T> extends PopupControl {
         }
     }
 
+    private boolean isSelectionEmpty() {
+        return ((ListView<?>) getSkin().getNode()).getSelectionModel().isEmpty();
+    }
+
     /**
      * Selects the first suggestion (if any), so the user can choose it
      * by pressing enter immediately.
@@ -6,6 +6,8 @@
 package com.dlsc.gemsfx.skins;
 
 import com.dlsc.gemsfx.SearchField;
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
 import javafx.collections.transformation.SortedList;
 import javafx.scene.Node;
 import javafx.scene.control.ListView;
@@ -14,6 +16,8 @@ import javafx.scene.input.MouseButton;
 import javafx.util.StringConverter;
 
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -22,13 +26,40 @@ public class SearchFieldPopupSkin<T> implements Skin<SearchFieldPopup<T>> {
     private final SearchFieldPopup<T> control;
     private final ListView<T> listView;
     private final SearchField<T> searchField;
+    private final SortedList<T> sortedList;
+    private Map<T, SearchFieldSortKey<T>> sortKeys = new IdentityHashMap<>();
+    private boolean resortRequired;
 
     public SearchFieldPopupSkin(SearchFieldPopup<T> control) {
         this.control = control;
 
         searchField = control.getSearchField();
 
-        SortedList<T> sortedList = new SortedList<>(searchField.getSuggestions(), createInnerComparator());
+        /*
+         * Invalidation listeners always get notified before list change listeners, hence
+         * the keys will be up-to-date when the sorted list starts sorting the new suggestions.
+         */
+        searchField.getSuggestions().addListener((InvalidationListener) it -> updateSortKeys());
+        updateSortKeys();
+
+        sortedList = new SortedList<>(searchField.getSuggestions(), createInnerComparator());
+
+        /*
+         * The suggestions get updated incrementally by the search field. Suggestions that have been
+         * kept might have to move to a new position when the search text has changed, which requires a
+         * full re-sort. This listener gets called after the sorted list has processed the change.
+         */
+        searchField.getSuggestions().addListener((ListChangeListener<T>) change -> resortIfRequired());
+
+        searchField.addEventHandler(SearchField.SearchEvent.SEARCH_FINISHED, evt -> updatePrefixMatches());
+        searchField.addEventHandler(SearchField.SearchEvent.SEARCH_UPDATED, evt -> updatePrefixMatches());
+
+        searchField.converterProperty().addListener(it -> {
+            sortKeys.clear();
+            updateSortKeys();
+            resortRequired = true;
+            resortIfRequired();
+        });
 
         listView = new ListView<>(sortedList) {
             @Override
@@ -51,47 +82,76 @@ public class SearchFieldPopupSkin<T> implements Skin<SearchFieldPopup<T>> {
     }
 
     /*
-     * We use an inner comparator because for the proper functioning of the auto suggest
-     * behaviour we have to make sure that the currently selected item will always show
-     * up as the first item in the list.
+     * The sort keys contain the text of each suggestion and whether it starts with the search
+     * text or not. The text of a suggestion only gets converted once, when it gets added to the
+     * suggestions. Suggestions that are still present only need to check whether they still start
+     * with the search text and whether they are selected or not.
      */
-    private Comparator<T> createInnerComparator() {
-        return (o1, o2) -> {
-            Comparator<T> comparator = searchField.getComparator();
-            int result = comparator.compare(o1, o2);
-
-            // make sure to always show the currently selected item on top of the list
-            T selectedItem = searchField.getSelectedItem();
-            if (selectedItem != null) {
-                if (o1.equals(selectedItem)) {
-                    result = -1;
-                }
-                if (selectedItem.equals(o2)) {
-                    result = 1;
+    private void updateSortKeys() {
+        Map<T, SearchFieldSortKey<T>> newSortKeys = new IdentityHashMap<>();
+
+        StringConverter<T> converter = searchField.getConverter();
+        String searchText = searchField.getText().toLowerCase();
+        T selectedItem = searchField.getSelectedItem();
+
+        for (T item : searchField.getSuggestions()) {
+            SearchFieldSortKey<T> key = sortKeys.get(item);
+            if (key == null) {
+                key = SearchFieldSortKey.create(item, converter, searchText, selectedItem);
+            } else {
+                SearchFieldSortKey<T> updatedKey = key.update(searchText, selectedItem);
+                if (updatedKey != key) {
+                    resortRequired = true;
+                    key = updatedKey;
                 }
             }
+            newSortKeys.put(item, key);
+        }
 
-            // prefer the suggestions that start with the search term
-            StringConverter<T> converter = searchField.getConverter();
-            String searchText = searchField.getText().toLowerCase();
-
-            String text1 = converter.toString(o1).toLowerCase();
-            String text2 = converter.toString(o2).toLowerCase();
+        sortKeys = newSortKeys;
+    }
 
-            if (text1.startsWith(searchText) && text2.startsWith(searchText)) {
-                return text1.compareTo(text2);
+    /*
+     * The suggestions might not have changed at all for a new search text, but the keys might
+     * still have to be updated.
+     */
+    private void updatePrefixMatches() {
+        String searchText = searchField.getText().toLowerCase();
+        for (Map.Entry<T, SearchFieldSortKey<T>> entry : sortKeys.entrySet()) {
+            SearchFieldSortKey<T> key = entry.getValue();
+            SearchFieldSortKey<T> updatedKey = key.update(searchText, key.isSelected());
+            if (updatedKey != key) {
+                entry.setValue(updatedKey);
+                resortRequired = true;
             }
+        }
 
-            if (text1.startsWith(searchText)) {
-                result = -1;
-            }
+        resortIfRequired();
+    }
 
-            if (text2.startsWith(searchText)) {
-                result = 1;
-            }
+    private void resortIfRequired() {
+        if (resortRequired) {
+            resortRequired = false;
+            sortedList.setComparator(createInnerComparator());
+        }
+    }
 
-            return result;
-        };
+    private SearchFieldSortKey<T> getSortKey(T item) {
+        SearchFieldSortKey<T> key = sortKeys.get(item);
+        if (key == null) {
+            key = SearchFieldSortKey.create(item, searchField.getConverter(), searchField.getText().toLowerCase(), searchField.getSelectedItem());
+            sortKeys.put(item, key);
+        }
+        return key;
+    }
+
+    /*
+     * We use an inner comparator because for the proper functioning of the auto suggest
+     * behaviour we have to make sure that the currently selected item will always show
+     * up as the first item in the list.
+     */
+    private Comparator<T> createInnerComparator() {
+        return (o1, o2) -> SearchFieldSortKey.compare(getSortKey(o1), getSortKey(o2), searchField.getComparator());
     }
 
     private void registerEventListener() {
@@ -0,0 +1,160 @@
+package com.dlsc.gemsfx.skins;
+
+import com.dlsc.gemsfx.SearchField;
+import javafx.util.StringConverter;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * The precomputed sort information of a single suggestion shown by the popup of a
+ * {@link SearchField}. The keys get created once per suggestion, so that sorting the
+ * suggestions does not require any string conversions or allocations.
+ *
+ * @param <T> the type of the suggestion
+ * @see SearchFieldPopupSkin
+ */
+public final class SearchFieldSortKey<T> {
+
+    private final T item;
+
+    private final String text;
+
+    private final String lowerCaseText;
+
+    private final boolean prefixMatch;
+
+    private final boolean selected;
+
+    private SearchFieldSortKey(T item, String text, String lowerCaseText, boolean prefixMatch, boolean selected) {
+        this.item = item;
+        this.text = text;
+        this.lowerCaseText = lowerCaseText;
+        this.prefixMatch = prefixMatch;
+        this.selected = selected;
+    }
+
+    /**
+     * Creates a new sort key for the given suggestion.
+     *
+     * @param item                the suggestion
+     * @param converter           the converter used for turning the suggestion into text
+     * @param lowerCaseSearchText the search text of the user, already converted to lower case
+     * @param selectedItem        the currently selected item of the search field (can be null)
+     * @param <T>                 the type of the suggestion
+     * @return the sort key
+     */
+    public static <T> SearchFieldSortKey<T> create(T item, StringConverter<T> converter, String lowerCaseSearchText, T selectedItem) {
+        String text = Objects.requireNonNullElse(converter.toString(item), "");
+        String lowerCaseText = text.toLowerCase();
+        boolean selected = selectedItem != null && item != null && item.equals(selectedItem);
+        return new SearchFieldSortKey<>(item, text, lowerCaseText, lowerCaseText.startsWith(lowerCaseSearchText), selected);
+    }
+
+    /**
+     * Returns a key for the same suggestion that reflects the given search text and selected
+     * item. The text of the suggestion will not be converted again. If neither the prefix match
+     * nor the selection state have changed then this key will be returned.
+     *
+     * @param lowerCaseSearchText the search text of the user, already converted to lower case
+     * @param selectedItem        the currently selected item of the search field (can be null)
+     * @return the updated key
+     */
+    public SearchFieldSortKey<T> update(String lowerCaseSearchText, T selectedItem) {
+        boolean selected = selectedItem != null && item != null && item.equals(selectedItem);
+        return update(lowerCaseSearchText, selected);
+    }
+
+    SearchFieldSortKey<T> update(String lowerCaseSearchText, boolean selected) {
+        boolean prefixMatch = lowerCaseText.startsWith(lowerCaseSearchText);
+        if (prefixMatch == this.prefixMatch && selected == this.selected) {
+            return this;
+        }
+        return new SearchFieldSortKey<>(item, text, lowerCaseText, prefixMatch, selected);
+    }
+
+    /**
+     * Compares two sort keys. The currently selected item will always be placed on top of the
+     * list, unless other suggestions start with the search text. Suggestions starting with the search
+     * text always come first and are sorted alphabetically. All other suggestions are sorted by the given
+     * comparator.
+     *
+     * @param key1       the first key
+     * @param key2       the second key
+     * @param comparator the comparator of the search field
+     * @param <T>        the type of the suggestions
+     * @return the comparison result
+     * @see SearchField#comparatorProperty()
+     */
+    public static <T> int compare(SearchFieldSortKey<T> key1, SearchFieldSortKey<T> key2, Comparator<T> comparator) {
+
+        // prefer the suggestions that start with the search term
+        if (key1.prefixMatch && key2.prefixMatch) {
+            return key1.lowerCaseText.compareTo(key2.lowerCaseText);
+        }
+
+        if (key2.prefixMatch) {
+            return 1;
+        }
+
+        if (key1.prefixMatch) {
+            return -1;
+        }
+
+        // make sure to always show the currently selected item on top of the list
+        if (key2.selected) {
+            return 1;
+        }
+
+        if (key1.selected) {
+            return -1;
+        }
+
+        return comparator.compare(key1.item, key2.item);
+    }
+
+    /**
+     * Returns the suggestion for which this key was created.
+     *
+     * @return the suggestion
+     */
+    public T getItem() {
+        return item;
+    }
+
+    /**
+     * Returns the text of the suggestion as returned by the converter.
+     *
+     * @return the display text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the text of the suggestion in lower case.
+     *
+     * @return the lower case display text
+     */
+    public String getLowerCaseText() {
+        return lowerCaseText;
+    }
+
+    /**
+     * Determines if the text of the suggestion starts with the search text.
+     *
+     * @return true if the suggestion starts with the search text
+     */
+    public boolean isPrefixMatch() {
+        return prefixMatch;
+    }
+
+    /**
+     * Determines if the suggestion is the selected item of the search field.
+     *
+     * @return true if the suggestion is the selected item
+     */
+    public boolean isSelected() {
+        return selected;
+    }
+}
@@ -0,0 +1,120 @@
+package com.dlsc.gemsfx.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Factory methods for the executors used by the controls and utilities of this library for
+ * running background work, e.g. the lookups of the {@link com.dlsc.gemsfx.SearchField} or the
+ * calls made by a {@link ServiceInvocation}.
+ */
+public class ExecutorUtil {
+
+    private static final Logger LOG = Logger.getLogger(ExecutorUtil.class.getName());
+
+    private ExecutorUtil() {
+    }
+
+    /**
+     * Determines whether the Java runtime supports virtual threads (Java 21 or later).
+     *
+     * @return true if virtual threads are available
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VirtualThreads.FACTORY_METHOD != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task. Virtual threads are cheap,
+     * so blocking calls (e.g. JDBC or HTTP) no longer tie up an operating system thread. This library
+     * still supports Java 17, hence the virtual threads get created reflectively. On runtimes without
+     * virtual threads the method returns a cached pool of daemon threads instead.
+     *
+     * @param name the name used for the threads of the executor
+     * @return an executor running each task on its own virtual thread
+     * @see #isVirtualThreadSupported()
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        if (isVirtualThreadSupported()) {
+            try {
+                return VirtualThreads.newThreadPerTaskExecutor(name);
+            } catch (ReflectiveOperationException ex) {
+                LOG.log(Level.WARNING, "unable to create virtual thread executor, falling back to platform threads", ex);
+            }
+        }
+
+        return Executors.newCachedThreadPool(daemonThreadFactory(name, Thread.NORM_PRIORITY));
+    }
+
+    /**
+     * Creates an executor that never uses more than the given number of (daemon) threads. Tasks
+     * submitted while all threads are busy will be queued. Idle threads will be terminated after
+     * a while, so the executor does not hold on to any threads when it is not being used.
+     *
+     * @param name       the name used for the threads of the executor
+     * @param maxThreads the maximum number of threads
+     * @return a bounded executor
+     */
+    public static ExecutorService newBoundedExecutor(String name, int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("max threads must be larger than zero but was " + maxThreads);
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreadFactory(name, Thread.NORM_PRIORITY));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns a thread factory that creates daemon threads with the given name and priority.
+     *
+     * @param name     the name prefix of the threads
+     * @param priority the priority of the threads
+     * @return the thread factory
+     */
+    public static ThreadFactory daemonThreadFactory(String name, int priority) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName(name + " " + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+    }
+
+    /*
+     * Holds the reflective handles of the Java 21 API for virtual threads.
+     */
+    private static final class VirtualThreads {
+
+        private static final Method FACTORY_METHOD = lookup();
+
+        private static Method lookup() {
+            try {
+                return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+        }
+
+        static ExecutorService newThreadPerTaskExecutor(String name) throws ReflectiveOperationException {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + " ", 1L);
+
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) FACTORY_METHOD.invoke(null, factory);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.dlsc.gemsfx.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A session store that keeps all values in a single properties file. This is a good fit for
+ * applications that persist a large number of properties, as the values can be read with a single
+ * file access when the application starts. The file gets rewritten for every batch of changes. It
+ * is first written to a temporary file, which then replaces the previous version, so the file never
+ * contains half-written values, even if the application gets terminated while saving.
+ */
+public final class FileSessionStore implements SessionStore {
+
+    private final Path file;
+
+    // guarded by this
+    private Map<String, String> values;
+
+    /**
+     * Constructs a new store for the given file. The file and its parent directories will be
+     * created when the first values get saved.
+     *
+     * @param file the file used for persisting the values
+     */
+    public FileSessionStore(Path file) {
+        this.file = Objects.requireNonNull(file, "file can not be null");
+    }
+
+    /**
+     * Returns the file used for persisting the values.
+     *
+     * @return the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized Map<String, String> load() throws IOException {
+        Map<String, String> values = new HashMap<>();
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (NoSuchFileException ex) {
+            // nothing has been saved, yet
+        }
+
+        properties.forEach((key, value) -> values.put((String) key, (String) value));
+
+        this.values = new HashMap<>(values);
+        return values;
+    }
+
+    @Override
+    public synchronized void save(Map<String, String> values, Set<String> removals) throws IOException {
+        if (this.values == null) {
+            load();
+        }
+
+        this.values.putAll(values);
+        this.values.keySet().removeAll(removals);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                // sorted, so that the file can be compared easily
+                for (Map.Entry<String, String> entry : new TreeMap<>(this.values).entrySet()) {
+                    writer.write(escape(entry.getKey(), true));
+                    writer.write('=');
+                    writer.write(escape(entry.getValue(), false));
+                    writer.write('\n');
+                }
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /*
+     * Escapes the given text according to the format read by Properties.load(Reader).
+     */
+    private static String escape(String text, boolean key) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                case '=':
+                case ':':
+                case '#':
+                case '!':
+                    sb.append('\\').append(c);
+                    break;
+                case ' ':
+                    // spaces only need to be escaped in keys and at the beginning of values
+                    if (key || i == 0) {
+                        sb.append('\\');
+                    }
+                    sb.append(c);
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,409 @@
+package com.dlsc.gemsfx.util;
+
+import com.dlsc.gemsfx.SearchField;
+import com.dlsc.gemsfx.SearchField.SearchFieldSuggestionRequest;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+import javafx.util.Callback;
+import javafx.util.StringConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A suggestion provider for the {@link SearchField} that searches a local collection of items
+ * via a sorted index instead of testing every single item. The index maps the normalized text of
+ * each item (as returned by the converter) to the item itself, so that all items starting with the
+ * text typed by the user can be found in O(log n + k). Optionally a second index of the individual
+ * words (tokens) of each text can be maintained, so that items can also be found by a word in the middle
+ * of their text (e.g. "york" finds "New York").
+ * <p>
+ * Lookups stop as soon as the result limit has been reached. If the collection passed to the provider
+ * is an {@link ObservableList} then the index will be updated incrementally whenever items get added or
+ * removed. The index can be queried from the worker threads of the search field while it is being
+ * updated on the UI thread.
+ *
+ * @param <T> the type of the items
+ * @see SearchField#indexedSuggestionProvider(Collection, StringConverter)
+ */
+public class IndexedSuggestionProvider<T> implements Callback<SearchFieldSuggestionRequest, Collection<T>> {
+
+    private final StringConverter<T> converter;
+
+    private final boolean tokenIndexEnabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, List<T>> index = new TreeMap<>();
+
+    private final NavigableMap<String, List<T>> tokenIndex = new TreeMap<>();
+
+    // the key and the number of occurrences of each indexed item
+    private final Map<T, Entry> entries = new IdentityHashMap<>();
+
+    private final ListChangeListener<T> listChangeListener = this::onChanged;
+
+    private volatile int resultLimit = 100;
+
+    /**
+     * Constructs a new provider for the given items. The token index will not be created.
+     *
+     * @param items     the items to search
+     * @param converter the converter used for turning the items into searchable text
+     */
+    public IndexedSuggestionProvider(Collection<T> items, StringConverter<T> converter) {
+        this(items, converter, false);
+    }
+
+    /**
+     * Constructs a new provider for the given items.
+     *
+     * @param items             the items to search
+     * @param converter         the converter used for turning the items into searchable text
+     * @param tokenIndexEnabled if true, then items will also be found by the words in the middle of their text
+     */
+    public IndexedSuggestionProvider(Collection<T> items, StringConverter<T> converter, boolean tokenIndexEnabled) {
+        Objects.requireNonNull(items, "items can not be null");
+        this.converter = Objects.requireNonNull(converter, "converter can not be null");
+        this.tokenIndexEnabled = tokenIndexEnabled;
+
+        addAll(items);
+
+        if (items instanceof ObservableList) {
+            ((ObservableList<T>) items).addListener(new WeakListChangeListener<>(listChangeListener));
+        }
+    }
+
+    /**
+     * Returns the maximum number of items returned by a single lookup. The default is 100. A
+     * smaller limit requested by the search field will take precedence.
+     *
+     * @return the result limit
+     */
+    public final int getResultLimit() {
+        return resultLimit;
+    }
+
+    /**
+     * Sets the maximum number of items returned by a single lookup.
+     *
+     * @param resultLimit the result limit
+     */
+    public final void setResultLimit(int resultLimit) {
+        if (resultLimit < 1) {
+            throw new IllegalArgumentException("result limit must be larger than zero but was " + resultLimit);
+        }
+        this.resultLimit = resultLimit;
+    }
+
+    /**
+     * Determines whether the items can also be found by the words in the middle of their text.
+     *
+     * @return true if the token index is enabled
+     */
+    public final boolean isTokenIndexEnabled() {
+        return tokenIndexEnabled;
+    }
+
+    @Override
+    public Collection<T> call(SearchFieldSuggestionRequest request) {
+        int limit = Math.min(resultLimit, request.getMaxSuggestions());
+        List<T> result = find(request.getUserText(), limit);
+        if (result.size() >= limit) {
+            // there might be more matching items
+            request.markTruncated();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the items whose text starts with the given text, followed by the items that contain
+     * a word starting with the given text (if the token index is enabled).
+     *
+     * @param text  the search text
+     * @param limit the maximum number of items to return
+     * @return the matching items
+     */
+    public List<T> find(String text, int limit) {
+        if (text == null || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        String prefix = normalize(text);
+        if (prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<T> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Set<T> found = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            collect(index, prefix, limit, result, found);
+
+            if (tokenIndexEnabled && result.size() < limit) {
+                collect(tokenIndex, prefix, limit, result, found);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    private void collect(NavigableMap<String, List<T>> map, String prefix, int limit, List<T> result, Set<T> found) {
+        for (Map.Entry<String, List<T>> entry : map.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                return;
+            }
+
+            for (T item : entry.getValue()) {
+                if (found.add(item)) {
+                    result.add(item);
+                    if (result.size() >= limit) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the given item to the index. An item that has been added several times (e.g. because a
+     * list contains it more than once) stays in the index until it has been removed as often.
+     *
+     * @param item the new item
+     */
+    public final void add(T item) {
+        lock.writeLock().lock();
+        try {
+            doAdd(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the given items to the index.
+     *
+     * @param items the new items
+     */
+    public final void addAll(Collection<? extends T> items) {
+        lock.writeLock().lock();
+        try {
+            items.forEach(this::doAdd);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes one occurrence of the given item from the index.
+     *
+     * @param item the item to remove
+     */
+    public final void remove(T item) {
+        lock.writeLock().lock();
+        try {
+            doRemove(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all items from the index.
+     */
+    public final void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            tokenIndex.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of items in the index.
+     *
+     * @return the number of indexed items
+     */
+    public final int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizes the text of an item or the search text of the user before it gets used as
+     * a key of the index. The default implementation trims the text and converts it to lower case.
+     *
+     * @param text the text to normalize
+     * @return the normalized text
+     */
+    protected String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /*
+     * Adds an occurrence of the given item, the same instance only gets indexed once.
+     */
+    private void doAdd(T item) {
+        if (item == null) {
+            return;
+        }
+
+        Entry entry = entries.get(item);
+        if (entry != null) {
+            entry.count++;
+            return;
+        }
+
+        String key = keyOf(item);
+        entries.put(item, new Entry(key));
+        addToBuckets(key, item);
+    }
+
+    /*
+     * Removes an occurrence of the given item, it stays in the index while other occurrences exist.
+     */
+    private void doRemove(T item) {
+        Entry entry = entries.get(item);
+        if (entry == null || --entry.count > 0) {
+            return;
+        }
+
+        entries.remove(item);
+        removeFromBuckets(entry.key, item);
+    }
+
+    /*
+     * Indexes the given item under its current text.
+     */
+    private void reindex(T item) {
+        Entry entry = entries.get(item);
+        if (entry == null) {
+            return;
+        }
+
+        String key = keyOf(item);
+        if (!key.equals(entry.key)) {
+            removeFromBuckets(entry.key, item);
+            entry.key = key;
+            addToBuckets(key, item);
+        }
+    }
+
+    private String keyOf(T item) {
+        return normalize(Objects.requireNonNullElse(converter.toString(item), ""));
+    }
+
+    private void addToBuckets(String key, T item) {
+        index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(item);
+
+        if (tokenIndexEnabled) {
+            for (String token : tokens(key)) {
+                tokenIndex.computeIfAbsent(token, k -> new ArrayList<>(1)).add(item);
+            }
+        }
+    }
+
+    private void removeFromBuckets(String key, T item) {
+        removeFromBucket(index, key, item);
+
+        if (tokenIndexEnabled) {
+            for (String token : tokens(key)) {
+                removeFromBucket(tokenIndex, token, item);
+            }
+        }
+    }
+
+    private void removeFromBucket(Map<String, List<T>> map, String key, T item) {
+        List<T> bucket = map.get(key);
+        if (bucket != null) {
+            bucket.removeIf(element -> element == item);
+            if (bucket.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    /*
+     * Returns all words of the given key except for the first one, which is already covered
+     * by the main index.
+     */
+    private static List<String> tokens(String key) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= key.length(); i++) {
+            boolean letterOrDigit = i < key.length() && Character.isLetterOrDigit(key.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                if (start > 0) {
+                    tokens.add(key.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends T> change) {
+        lock.writeLock().lock();
+        try {
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    continue;
+                }
+
+                if (change.wasUpdated()) {
+                    // the text of the items might have changed
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+                        reindex(change.getList().get(i));
+                    }
+                    continue;
+                }
+
+                if (change.wasRemoved()) {
+                    change.getRemoved().forEach(this::doRemove);
+                }
+
+                if (change.wasAdded()) {
+                    change.getAddedSubList().forEach(this::doAdd);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Entry {
+
+        private String key;
+
+        private int count = 1;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+    }
+}
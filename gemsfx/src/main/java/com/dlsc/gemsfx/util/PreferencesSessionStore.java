@@ -0,0 +1,75 @@
+package com.dlsc.gemsfx.util;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+/**
+ * A session store that keeps the values in a node of the Java preferences. This is the store
+ * used by {@link SessionManager#SessionManager(Preferences)}.
+ */
+public final class PreferencesSessionStore implements SessionStore {
+
+    private final Preferences preferences;
+
+    /**
+     * Constructs a new store for the given preferences.
+     *
+     * @param preferences the preferences used for persisting the values
+     */
+    public PreferencesSessionStore(Preferences preferences) {
+        this.preferences = Objects.requireNonNull(preferences, "preferences can not be null");
+    }
+
+    /**
+     * Returns the preferences used for persisting the values.
+     *
+     * @return the preferences
+     */
+    public Preferences getPreferences() {
+        return preferences;
+    }
+
+    @Override
+    public Map<String, String> load() throws IOException {
+        try {
+            Map<String, String> values = new HashMap<>();
+            for (String key : preferences.keys()) {
+                String value = preferences.get(key, null);
+                if (value != null) {
+                    values.put(key, value);
+                }
+            }
+            return values;
+        } catch (BackingStoreException | IllegalStateException ex) {
+            throw new IOException("unable to read preferences " + preferences.absolutePath(), ex);
+        }
+    }
+
+    @Override
+    public void save(Map<String, String> values, Set<String> removals) throws IOException {
+        try {
+            values.forEach(preferences::put);
+            removals.forEach(preferences::remove);
+        } catch (IllegalStateException ex) {
+            throw new IOException("unable to write preferences " + preferences.absolutePath(), ex);
+        }
+    }
+
+    /**
+     * Flushes the preferences. The preferences get saved by a shutdown hook of their own, which
+     * might run before the session manager has written its remaining changes.
+     */
+    @Override
+    public void sync() throws IOException {
+        try {
+            preferences.flush();
+        } catch (BackingStoreException | IllegalStateException ex) {
+            throw new IOException("unable to flush preferences " + preferences.absolutePath(), ex);
+        }
+    }
+}
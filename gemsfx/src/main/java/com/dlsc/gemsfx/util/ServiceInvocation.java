@@ -5,16 +5,31 @@ package com.dlsc.gemsfx.util;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,6 +43,7 @@ import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.concurrent.Worker;
+import retrofit2.Call;
 import retrofit2.Response;
 
 /**
@@ -62,6 +78,75 @@ import retrofit2.Response;
  * where service invocations are being executed (e.g. Window.execute(si) or Workbench.execute(si))
  * and wants to set "default" handlers in that location. At the same time each specific occurrence
  * of a service invocation might require its own / more specific handlers.
+ * <p>
+ * <h3>Cancellation:</h3>
+ * A running service invocation can be cancelled via {@link #cancel()}. Invocations created with a
+ * {@link CallSupplier} (see {@link #createCall(String, CallSupplier)}) will also cancel the underlying
+ * Retrofit call, which closes the HTTP connection right away. Invocations created with a plain
+ * {@link ServiceSupplier} will only interrupt their worker thread.
+ * <pre>
+ *         ServiceInvocation.createCall("Load data ...", () -> myService.loadData())
+ *              .onSuccess(data -> listView.getItems().setAll(data)).execute();
+ *     </pre>
+ * <h3>Threading:</h3>
+ * By default the worker thread of an invocation waits for each handler to finish on the UI thread
+ * before it continues. Applications that execute many invocations concurrently can disable this via
+ * {@link #withBlockingHandOff(boolean)}, so that the handlers get queued on the UI thread (in the same
+ * order) and the worker thread is released immediately. In combination with
+ * {@link #virtualThreadExecutor()} the number of concurrent invocations is then no longer bound by the
+ * number of operating system threads.
+ * <pre>
+ *         ServiceInvocation.setDefaultExecutor(ServiceInvocation.virtualThreadExecutor());
+ *     </pre>
+ * The observable properties of the invocations (state, message, progress, running, ...) are not updated
+ * one by one. Instead, the changes made on the worker threads get collected and applied together in
+ * a single runnable on the UI thread, shared by all invocations. Listeners only see the latest state,
+ * which is always applied before any of the handlers of the invocation get invoked.
+ * <h3>De-duplication:</h3>
+ * Invocations that have been given a key via {@link #withDeduplicationKey(Object)} share their backend
+ * call with other invocations that use the same key and that are currently in flight. Only the first
+ * one of them calls the service, the others wait for its response. Each invocation still invokes its own
+ * handlers.
+ * <pre>
+ *         ServiceInvocation.create("Load customers", () -> myService.loadCustomers().execute())
+ *              .withDeduplicationKey("customers")
+ *              .onSuccess(customers -> listView.getItems().setAll(customers)).execute();
+ *     </pre>
+ * <h3>Concurrency limits:</h3>
+ * The number of invocations of the same group (or with the same name) that call their services at the same
+ * time can be limited via {@link #setMaxConcurrency(String, int)}. Invocations exceeding the limit stay in the
+ * {@link State#SCHEDULED} state until one of the running invocations has finished. Queued invocations with a
+ * higher {@link Priority} will be started first. The time an invocation spent in the queue is available via
+ * {@link #queueWaitProperty()}.
+ * <pre>
+ *         ServiceInvocation.setMaxConcurrency("export", 2);
+ *
+ *         ServiceInvocation.create("Export data", () -> myService.export().execute())
+ *              .withGroup("export").withPriority(Priority.BACKGROUND).execute();
+ *     </pre>
+ * <h3>Retries:</h3>
+ * Invocations can be retried automatically when the server is temporarily unavailable, see
+ * {@link #withRetry(RetryPolicy)}. The retries get scheduled, no thread is blocked while waiting for the
+ * next attempt. In addition, a circuit breaker can be installed for a group (or name) of invocations
+ * via {@link #setCircuitBreaker(String, int, Duration)}. After a number of consecutive failures the
+ * invocations of the group fail right away, without calling the service, until the circuit breaker
+ * lets a trial call through.
+ * <pre>
+ *         ServiceInvocation.setCircuitBreaker("Load data ...", 5, Duration.ofSeconds(30));
+ *
+ *         ServiceInvocation.create("Load data ...", () -> myService.loadData().execute())
+ *              .withRetry(RetryPolicy.exponentialBackoff(3, Duration.ofMillis(200)))
+ *              .onSuccess(data -> listView.getItems().setAll(data)).execute();
+ *     </pre>
+ * <h3>Caching:</h3>
+ * Invocations can opt into caching their responses via {@link #withCaching(Object, Duration, Duration)}.
+ * A cached response will be passed to the success handlers right away, without calling the service. See
+ * {@link ServiceInvocationCache} for details.
+ * <pre>
+ *         ServiceInvocation.create("Load customers", () -> myService.loadCustomers().execute())
+ *              .withCaching("customers", Duration.ofMinutes(1), Duration.ofMinutes(10))
+ *              .onSuccess(customers -> listView.getItems().setAll(customers)).execute();
+ *     </pre>
  *
  * @param <T> the type of the result object wrapped inside the retrofit response
  */
@@ -77,8 +162,49 @@ public final class ServiceInvocation<T> implements Worker<T> {
         return thread;
     });
 
+    private static volatile Executor defaultExecutor = EXECUTOR;
+
+    private static final Map<Object, CompletableFuture<Outcome<?>>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private static final ServiceInvocationCache CACHE = new ServiceInvocationCache(100);
+
+    private static final Map<String, Bulkhead> BULKHEADS = new ConcurrentHashMap<>();
+
+    private static final Map<String, CircuitBreaker> CIRCUIT_BREAKERS = new ConcurrentHashMap<>();
+
+    private static final ServiceInvocationMetrics METRICS = new ServiceInvocationMetrics();
+
+    // the flight recorder is an optional module, the event class must not be loaded without it
+    private static final boolean FLIGHT_RECORDER_AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    /**
+     * The priorities of service invocations. They determine the order in which queued invocations
+     * get started when the number of concurrent invocations of their group is limited.
+     *
+     * @see #withPriority(Priority)
+     * @see #setMaxConcurrency(String, int)
+     */
+    public enum Priority {
+
+        /**
+         * For invocations the user is actively waiting for, e.g. a lookup while typing.
+         */
+        INTERACTIVE,
+
+        /**
+         * For invocations that run in the background, e.g. an export.
+         */
+        BACKGROUND,
+
+        /**
+         * For invocations that load data that might be needed later on.
+         */
+        PREFETCH
+    }
+
     private final String name;
     private final ServiceSupplier<T> service;
+    private final CallSupplier<T> callSupplier;
 
     private Consumer<String> onStart;
     private Consumer<T> onSuccess;
@@ -101,9 +227,58 @@ public final class ServiceInvocation<T> implements Worker<T> {
 
     private long delay;
 
-    private ServiceInvocation(String name, ServiceSupplier<T> service) {
+    private boolean blockingHandOff = true;
+
+    private Object deduplicationKey;
+
+    private String group;
+    private Priority priority = Priority.INTERACTIVE;
+
+    private RetryPolicy retryPolicy;
+
+    private volatile Executor executor;
+    private volatile Bulkhead bulkhead;
+    private volatile long queuedAt;
+    private volatile long totalQueueWait;
+
+    // timestamps (System.nanoTime()) and durations used for the metrics
+    private volatile ServiceInvocationEvent event = newEvent();
+    private volatile long executedAt;
+    private volatile long startedAt;
+    private volatile long respondedAt;
+    private final AtomicLong serverTime = new AtomicLong();
+    private volatile int statusCode;
+    private volatile int attempts;
+    private volatile ServiceInvocationMetrics.Outcome metricsOutcome;
+
+    // set by the group this invocation is a member of
+    private volatile GroupHandOff groupHandOff;
+    private volatile State finalState;
+
+    private Object cacheKey;
+    private Duration timeToLive = Duration.ZERO;
+    private Duration staleWhileRevalidate = Duration.ZERO;
+
+    // only accessed on the UI thread
+    private Throwable handOffFailure;
+
+    private final Object pendingUpdateLock = new Object();
+
+    // guarded by pendingUpdateLock
+    private PendingUpdate pendingUpdate;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private volatile Call<T> call;
+    private volatile FutureTask<Void> task;
+    private volatile CompletableFuture<Void> result;
+
+    private ServiceInvocation(String name, ServiceSupplier<T> service, CallSupplier<T> callSupplier) {
         this.name = Objects.requireNonNull(name, "service invocation name can not be null");
-        this.service = Objects.requireNonNull(service, "service can not be null");
+        this.service = service;
+        this.callSupplier = callSupplier;
 
         title.set(name);
     }
@@ -117,7 +292,22 @@ public final class ServiceInvocation<T> implements Worker<T> {
      * @return a service invocation
      */
     public static <T> ServiceInvocation<T> create(String name, ServiceSupplier<T> supplier) {
-        return new ServiceInvocation(name, supplier);
+        return new ServiceInvocation<>(name, Objects.requireNonNull(supplier, "service can not be null"), null);
+    }
+
+    /**
+     * Creates a new service invocation instance for a Retrofit call. The invocation will execute
+     * the call itself, which allows it to cancel the call (and to close the HTTP connection) when
+     * the invocation gets cancelled.
+     *
+     * @param name     the name of this invocation
+     * @param supplier the supplier returning the (not yet executed) retrofit call
+     * @param <T>      the type of the response object
+     * @return a service invocation
+     * @see #cancel()
+     */
+    public static <T> ServiceInvocation<T> createCall(String name, CallSupplier<T> supplier) {
+        return new ServiceInvocation<>(name, null, Objects.requireNonNull(supplier, "call supplier can not be null"));
     }
 
     private BiConsumer<String, String> getOnFailure() {
@@ -146,71 +336,436 @@ public final class ServiceInvocation<T> implements Worker<T> {
         return handler;
     }
 
+    /**
+     * Creates a group of service invocations that will be executed in parallel. The handlers of the
+     * invocations and of the group will be invoked together, once all invocations have finished.
+     *
+     * @param name        the name of the group
+     * @param invocations the invocations, which must not have been executed
+     * @return the group
+     * @see ServiceInvocationGroup
+     */
+    public static ServiceInvocationGroup all(String name, ServiceInvocation<?>... invocations) {
+        return new ServiceInvocationGroup(name, Arrays.asList(invocations));
+    }
+
+    /**
+     * Returns the executor used by {@link #execute()}. Unless changed via {@link #setDefaultExecutor(Executor)}
+     * this is a cached pool of low priority daemon threads.
+     *
+     * @return the default executor
+     */
+    public static Executor getDefaultExecutor() {
+        return defaultExecutor;
+    }
+
+    /**
+     * Sets the executor used by {@link #execute()}.
+     *
+     * @param executor the new default executor
+     * @see #virtualThreadExecutor()
+     */
+    public static void setDefaultExecutor(Executor executor) {
+        defaultExecutor = Objects.requireNonNull(executor, "executor can not be null");
+    }
+
+    /**
+     * Returns a shared executor that runs each service invocation on its own virtual thread. Blocking
+     * HTTP calls do not occupy an operating system thread while they wait for the server, hence thousands
+     * of invocations can be in flight at the same time. Requires Java 21 or later; on older runtimes the
+     * executor falls back to a cached pool of daemon threads.
+     *
+     * @return the virtual thread executor
+     * @see ExecutorUtil#newVirtualThreadPerTaskExecutor(String)
+     */
+    public static Executor virtualThreadExecutor() {
+        return VirtualThreadExecutor.INSTANCE;
+    }
+
+    /*
+     * Creates the virtual thread executor lazily, the first time it gets requested.
+     */
+    private static final class VirtualThreadExecutor {
+
+        private static final Executor INSTANCE = ExecutorUtil.newVirtualThreadPerTaskExecutor("Service Invocation Thread");
+    }
+
     /**
      * Executes the service invocation with the default executor.
      *
      * @return a completable future object usable for chaining
+     * @see #getDefaultExecutor()
      */
     public CompletableFuture<Void> execute() {
-        return execute(EXECUTOR);
+        return execute(defaultExecutor);
     }
 
     /**
-     * Executes the service invocation with the given executor.
+     * Executes the service invocation with the given executor. The returned future completes after
+     * all handlers of the invocation have been invoked. An invocation can be executed again once
+     * its previous execution has finished (or has been cancelled and its worker has finished), but
+     * not while it is still running.
      *
+     * @param executor the executor used for calling the service
      * @return a completable future object usable for chaining
+     * @throws IllegalStateException if the invocation is still running
      */
     public CompletableFuture<Void> execute(Executor executor) {
         Objects.requireNonNull(executor, "executor can not be null");
 
+        CompletableFuture<Void> previousResult = this.result;
+        if (previousResult != null) {
+            if (!previousResult.isDone() || !completed.get()) {
+                throw new IllegalStateException("service invocation is still running: " + getName());
+            }
+            reset();
+        }
+
         CompletableFuture<Void> result = new CompletableFuture<>();
+        this.result = result;
 
         state.set(State.RUNNING);
         totalWork.set(1);
         running.set(true);
         progress.set(0);
+        queueWait.set(Duration.ZERO);
+
+        this.executor = executor;
+
+        ServiceInvocationEvent event = this.event;
+        if (event != null) {
+            event.begin();
+        }
+        executedAt = System.nanoTime();
+
+        dispatchAttempt(1);
+
+        return result;
+    }
 
-        executor.execute(() -> {
+    /*
+     * Clears the state of the previous execution.
+     */
+    private void reset() {
+        started.set(false);
+        cancelled.set(false);
+        completed.set(false);
+
+        call = null;
+        task = null;
+        bulkhead = null;
+        queuedAt = 0;
+        totalQueueWait = 0;
+        finalState = null;
+        handOffFailure = null;
+
+        event = newEvent();
+        startedAt = 0;
+        respondedAt = 0;
+        serverTime.set(0);
+        statusCode = 0;
+        attempts = 0;
+        metricsOutcome = null;
+    }
 
-            if (onStart != null) {
-                Platform.runLater(() -> onStart.accept(getName()));
+    /*
+     * Calls the service and updates the cache. The given entry is the expired response held
+     * by the cache (if any), which can be confirmed by the server without sending it again.
+     */
+    private Outcome<T> callService(ServiceInvocationCache.Entry expiredEntry, boolean background) throws Exception {
+        if (!background) {
+            if (delay > 0) {
+                delay();
             }
 
+            updateMessage("Calling service");
+        }
 
-            LOG.fine("executing service invocation with name: " + getName());
-            try {
+        long startTime = System.nanoTime();
+
+        Outcome<T> outcome;
+
+        CircuitBreaker circuitBreaker = CIRCUIT_BREAKERS.get(getServiceKey());
+        Object circuitCall = new Object();
+        if (circuitBreaker != null && !circuitBreaker.allowRequest(circuitCall)) {
+            throw new CircuitOpenException(getServiceKey());
+        }
+
+        Boolean successful = null;
+
+        ServiceInvocationCache.setIfNoneMatch(expiredEntry != null ? expiredEntry.getETag() : null);
+        try {
+            outcome = deduplicationKey != null ? fetchShared() : fetch();
+            successful = outcome.response.code() < 500;
+        } catch (Exception ex) {
+            if (!isCancelled()) {
+                successful = false;
+            }
+            throw ex;
+        } finally {
+            ServiceInvocationCache.setIfNoneMatch(null);
 
-                if (delay > 0) {
-                    delay();
+            if (circuitBreaker != null) {
+                circuitBreaker.callFinished(circuitCall, successful);
+            }
+
+            if (!background) {
+                serverTime.addAndGet(System.nanoTime() - startTime);
+            }
+        }
+
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("server side call duration: " + Duration.ofNanos(System.nanoTime() - startTime).toMillis() + "ms");
+        }
+
+        if (cacheKey != null) {
+            if (outcome.response.code() == HttpStatusCode.NOT_MODIFIED.getStatusCode()) {
+                // might have been revalidated by another invocation with the same de-duplication key
+                ServiceInvocationCache.Entry entry = expiredEntry != null ? expiredEntry : CACHE.get(cacheKey);
+                if (entry != null) {
+                    LOG.fine("cached response has not been modified, key: " + cacheKey);
+                    CACHE.revalidated(cacheKey, entry);
+                    return cachedOutcome(entry);
                 }
+            } else if (outcome.response.isSuccessful()) {
+                CACHE.put(cacheKey, outcome.response);
+            }
+        }
+
+        return outcome;
+    }
 
-                Instant startTime = Instant.now();
+    private void revalidate(ServiceInvocationCache.Entry staleEntry) {
+        LOG.fine("revalidating cached response, key: " + cacheKey);
+        try {
+            callService(staleEntry, true);
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "unable to revalidate cached response of service invocation: " + getName(), ex);
+        }
+    }
 
-                Platform.runLater(() -> message.set("Calling service"));
+    @SuppressWarnings("unchecked")
+    private Outcome<T> cachedOutcome(ServiceInvocationCache.Entry entry) throws IOException {
+        return new Outcome<>((Response<T>) entry.getResponse());
+    }
 
-                Response<T> response = service.get();
+    private Outcome<T> fetch() throws Exception {
+        Response<T> response = callSupplier != null ? executeCall() : service.get();
+        return new Outcome<>(response);
+    }
 
-                if (LOG.isLoggable(Level.FINE)) {
-                    Duration duration = Duration.between(startTime, Instant.now());
-                    LOG.fine("server side call duration: " + duration.toMillis() + "ms");
+    /*
+     * Calls the service unless another invocation with the same key is already doing so, in
+     * which case the outcome of that invocation will be used.
+     */
+    @SuppressWarnings("unchecked")
+    private Outcome<T> fetchShared() throws Exception {
+        /*
+         * Invocations with different cache keys must not share a call, an invocation without a
+         * cached response could otherwise receive the "304 not modified" of a revalidation.
+         */
+        List<Object> key = Arrays.asList(deduplicationKey, cacheKey);
+
+        while (true) {
+            CompletableFuture<Outcome<?>> own = new CompletableFuture<>();
+            CompletableFuture<Outcome<?>> shared = IN_FLIGHT.putIfAbsent(key, own);
+
+            if (shared == null) {
+                try {
+                    Outcome<T> outcome = fetch();
+                    own.complete(outcome);
+                    return outcome;
+                } catch (Exception ex) {
+                    // the invocations waiting for a cancelled one have to call the service themselves
+                    own.completeExceptionally(isCancelled() ? new CancellationException() : ex);
+                    throw ex;
+                } finally {
+                    IN_FLIGHT.remove(key, own);
                 }
+            }
 
-                if (response.isSuccessful() && !isSimulatingFailure()) {
-                    success(response);
-                } else {
-                    failure(response);
+            LOG.fine("attaching to in-flight service invocation with key: " + deduplicationKey);
+
+            try {
+                return (Outcome<T>) shared.get();
+            } catch (CancellationException ex) {
+                LOG.fine("in-flight service invocation was cancelled, retrying, key: " + deduplicationKey);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof Exception cause) {
+                    throw cause;
                 }
+                throw ex;
+            }
+        }
+    }
 
-                result.complete(null);
+    private Response<T> executeCall() throws Exception {
+        Call<T> call = callSupplier.get();
+        this.call = call;
+
+        // the invocation might have been cancelled before the call was known
+        if (isCancelled()) {
+            call.cancel();
+        }
+
+        return call.execute();
+    }
+
+    private void dispatchAttempt(int attempt) {
+        FutureTask<Void> task = new FutureTask<>(() -> runAttempt(attempt), null);
+        this.task = task;
+
+        Bulkhead bulkhead = BULKHEADS.get(getServiceKey());
+        if (bulkhead == null) {
+            executor.execute(task);
+        } else {
+            this.bulkhead = bulkhead;
+            if (bulkhead.submit(this, executor, task) && attempt == 1) {
+                state.set(State.SCHEDULED);
+            }
+        }
+    }
+
+    private void runAttempt(int attempt) {
+        CompletableFuture<Void> result = this.result;
+
+        if (!started.compareAndSet(false, true)) {
+            // cancelled before the executor got around to it
+            return;
+        }
+
+        attempts = attempt;
+        if (startedAt == 0) {
+            startedAt = System.nanoTime();
+        }
+
+        if (queuedAt != 0) {
+            long wait = System.nanoTime() - queuedAt;
+            if (LOG.isLoggable(Level.FINE)) {
+                LOG.fine("service invocation waited in queue: " + Duration.ofNanos(wait).toMillis() + "ms");
+            }
+            queuedAt = 0;
+            totalQueueWait += wait;
+
+            Duration totalWait = Duration.ofNanos(totalQueueWait);
+            postUpdate(update -> update.queueWait = totalWait);
+            updateState(State.RUNNING, "Starting", null);
+        }
+
+        if (attempt == 1 && onStart != null) {
+            Platform.runLater(() -> onStart.accept(getName()));
+        }
+
+
+        LOG.fine("executing service invocation with name: " + getName() + ", attempt: " + attempt);
+
+        Exception failure = null;
+        ServiceInvocationCache.Entry staleEntry = null;
+        boolean retrying = false;
+
+        try {
+
+            Outcome<T> outcome = null;
+
+            if (cacheKey != null) {
+                ServiceInvocationCache.Entry entry = CACHE.get(cacheKey);
+                if (entry != null) {
+                    switch (CACHE.getFreshness(entry, timeToLive, staleWhileRevalidate)) {
+                        case FRESH:
+                            LOG.fine("using cached response, key: " + cacheKey);
+                            outcome = cachedOutcome(entry);
+                            break;
+                        case STALE:
+                            LOG.fine("using stale cached response, key: " + cacheKey);
+                            outcome = cachedOutcome(entry);
+                            staleEntry = entry;
+                            break;
+                        case EXPIRED:
+                            outcome = callService(entry, false);
+                            break;
+                    }
+                }
+            }
+
+            if (outcome == null) {
+                outcome = callService(null, false);
+            }
+
+            respondedAt = System.nanoTime();
+            statusCode = outcome.response.code();
+
+            if (isCancelled()) {
+                LOG.fine("service invocation was cancelled, ignoring response: " + getName());
+            } else if (outcome.response.isSuccessful() && !isSimulatingFailure()) {
+                success(outcome.response);
+            } else if (retryPolicy != null && !isSimulatingFailure() && retryPolicy.shouldRetry(attempt, outcome.response.code())) {
+                LOG.fine("service call was not successful, status code: " + outcome.response.code());
+                scheduleRetry(attempt);
+                retrying = true;
+            } else {
+                failure(outcome);
+            }
 
-            } catch (Exception t) {
-                exception(result, t);
-            } finally {
+        } catch (Exception t) {
+            respondedAt = System.nanoTime();
+
+            if (isCancelled()) {
+                LOG.fine("service invocation was cancelled: " + getName());
+            } else if (retryPolicy != null && retryPolicy.shouldRetry(attempt, t)) {
+                LOG.log(Level.FINE, "error when trying to invoke the service: " + getName(), t);
+                scheduleRetry(attempt);
+                retrying = true;
+            } else {
+                exception(t);
+                failure = t;
+            }
+        } finally {
+            if (!retrying) {
+                completed.set(true);
                 doFinally();
             }
-        });
+        }
 
-        return result;
+        if (retrying) {
+            return;
+        }
+
+        complete(result, failure);
+
+        notifyGroup();
+
+        if (staleEntry != null) {
+            revalidate(staleEntry);
+        }
+    }
+
+    /*
+     * Schedules the next attempt without blocking the current thread.
+     */
+    private void scheduleRetry(int attempt) {
+        long delay = retryPolicy.getDelay(attempt).toMillis();
+
+        LOG.fine("retrying service invocation " + getName() + " in " + delay + "ms");
+
+        updateMessage("Retrying (attempt " + (attempt + 1) + " of " + retryPolicy.getMaxAttempts() + ")");
+
+        // from now on the next attempt or a call to cancel() will complete the invocation
+        started.set(false);
+
+        RetryScheduler.INSTANCE.schedule(() -> {
+            try {
+                dispatchAttempt(attempt + 1);
+            } catch (RuntimeException ex) {
+                LOG.log(Level.SEVERE, "unable to retry service invocation: " + getName(), ex);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * The key used for looking up the concurrency limit and the circuit breaker of this invocation.
+     */
+    private String getServiceKey() {
+        return group != null ? group : name;
     }
 
     private void delay() throws InterruptedException {
@@ -219,27 +774,30 @@ public final class ServiceInvocation<T> implements Worker<T> {
     }
 
     private void success(Response<T> response) throws ExecutionException, InterruptedException {
-        Platform.runLater(() -> {
-            message.set("Call was successful");
-            state.set(State.SUCCEEDED);
+        metricsOutcome = ServiceInvocationMetrics.Outcome.SUCCESS;
+
+        postUpdate(update -> {
+            update.value = response.body();
+            update.valueChanged = true;
         });
+        updateState(State.SUCCEEDED, "Call was successful", null);
 
         if (onSuccess != null) {
             LOG.finer("invoking onSuccess handler");
-            runAndWait(() -> onSuccess.accept(response.body()));
+            handOffUnlessCancelled(() -> onSuccess.accept(response.body()));
         } else if (onSuccessDetailed != null) {
             LOG.finer("invoking onSuccessDetailed handler");
-            runAndWait(() -> onSuccessDetailed.accept(response));
+            handOffUnlessCancelled(() -> onSuccessDetailed.accept(response));
         }
     }
 
-    private void failure(Response<T> response) throws IOException, ExecutionException, InterruptedException {
-        Platform.runLater(() -> {
-            message.set("Call was not successful");
-            state.set(State.FAILED);
-        });
+    private void failure(Outcome<T> outcome) throws ExecutionException, InterruptedException {
+        metricsOutcome = ServiceInvocationMetrics.Outcome.FAILURE;
 
-        String errorMessage = simulatingFailure ? "Simulated failure" : (response.errorBody() != null ? response.errorBody().string() : "");
+        updateState(State.FAILED, "Call was not successful", null);
+
+        Response<T> response = outcome.response;
+        String errorMessage = simulatingFailure ? "Simulated failure" : outcome.errorMessage;
 
         LOG.log(Level.SEVERE, "service call was not successful: " + errorMessage);
 
@@ -250,14 +808,18 @@ public final class ServiceInvocation<T> implements Worker<T> {
             if (statusCodeConsumer != null) {
 
                 LOG.finer("invoking onStatusCode handler for status code " + response.code());
-                Platform.runLater(() -> statusCodeConsumer.accept(name, errorMessage));
+                runLater(() -> {
+                    if (!isCancelled()) {
+                        statusCodeConsumer.accept(name, errorMessage);
+                    }
+                });
             }
         }
 
         BiConsumer<String, String> onFailureHandler = getOnFailure();
 
         if (onFailureHandler != null) {
-            runAndWait(() -> {
+            handOffUnlessCancelled(() -> {
                 LOG.finer("invoking onFailure handler");
                 onFailureHandler.accept(name, errorMessage);
             });
@@ -267,44 +829,53 @@ public final class ServiceInvocation<T> implements Worker<T> {
 
             if (onFailureDetailedHandler != null) {
                 LOG.finer("invoking onFailureDetailed handler");
-                runAndWait(() -> onFailureDetailed.accept(name, response));
+                handOffUnlessCancelled(() -> onFailureDetailedHandler.accept(name, response));
             }
         }
     }
 
-    private void exception(CompletableFuture<Void> result, Exception t) {
+    private void exception(Exception t) {
         LOG.log(Level.SEVERE, "error when trying to invoke the service: " + getName(), t);
 
-        Platform.runLater(() -> {
-            state.set(State.FAILED);
-            exception.set(t);
-            message.set("Server-side error");
-        });
+        metricsOutcome = ServiceInvocationMetrics.Outcome.EXCEPTION;
+
+        updateState(State.FAILED, "Server-side error", t);
 
         BiConsumer<String, Exception> onExceptionHandler = getOnException();
 
         if (onExceptionHandler != null) {
             try {
                 LOG.finer("invoking onException handler");
-                runAndWait(() -> onExceptionHandler.accept(name, t));
+                handOffUnlessCancelled(() -> onExceptionHandler.accept(name, t));
             } catch (Exception e) {
                 LOG.log(Level.SEVERE, "error when trying to propagate error message from service invocation: " + getName(), e);
             }
         }
-
-        result.completeExceptionally(t);
     }
 
     private void doFinally() {
-        Platform.runLater(() -> {
-            running.set(false);
-            progress.set(1);
-        });
+        updateFinished();
 
         if (onFinally != null) {
             try {
                 LOG.finer("invoking onFinally handler");
-                runAndWait(onFinally);
+                if (isCancelled()) {
+                    /*
+                     * cancel() interrupts the worker, hence blocking until the handler has been
+                     * invoked would fail. Nobody is waiting for the handler in this case.
+                     */
+                    Thread.interrupted();
+                    runLater(() -> {
+                        try {
+                            applyPendingUpdate();
+                            onFinally.run();
+                        } catch (Exception e) {
+                            LOG.log(Level.SEVERE, "error when trying to execute ‘on finally' of service invocation: " + getName(), e);
+                        }
+                    });
+                } else {
+                    handOff(onFinally);
+                }
             } catch (Exception e) {
                 LOG.log(Level.SEVERE, "error when trying to execute ‘on finally' of service invocation: " + getName(), e);
             }
@@ -336,128 +907,401 @@ public final class ServiceInvocation<T> implements Worker<T> {
     }
 
     /**
-     * An easy way to explicitly make the service invocation fail in order to test the handling of
-     * failures by the application.
+     * Limits the number of invocations of the given group that call their services at the same time.
+     * Invocations that do not specify a group belong to the group with their name. Invocations exceeding
+     * the limit get queued and will be started in the order of their priority once running invocations
+     * have finished. Invocations of other groups are not affected.
      *
-     * @param failure enables / disables the failure
-     * @return the service invocation
+     * @param group          the name of the group (or of the invocations)
+     * @param maxConcurrency the maximum number of concurrent invocations or {@link Integer#MAX_VALUE} to remove the limit
+     * @see #withGroup(String)
+     * @see #withPriority(Priority)
      */
-    public ServiceInvocation<T> withSimulatingFailure(boolean failure) {
-        simulatingFailure = failure;
-        return this;
+    public static void setMaxConcurrency(String group, int maxConcurrency) {
+        Objects.requireNonNull(group, "group can not be null");
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("max concurrency must be larger than zero but was " + maxConcurrency);
+        }
+
+        BULKHEADS.computeIfAbsent(group, Bulkhead::new).setMaxConcurrency(maxConcurrency);
     }
 
     /**
-     * Returns true if the service invocation will intentionally fail (see also {@link #withSimulatingFailure(boolean)}).
+     * Returns the maximum number of invocations of the given group that call their services at the
+     * same time.
      *
-     * @return true if the invocation will fail
+     * @param group the name of the group (or of the invocations)
+     * @return the maximum number of concurrent invocations or {@link Integer#MAX_VALUE} if unlimited
      */
-    public boolean isSimulatingFailure() {
-        return simulatingFailure;
+    public static int getMaxConcurrency(String group) {
+        Bulkhead bulkhead = BULKHEADS.get(group);
+        return bulkhead != null ? bulkhead.getMaxConcurrency() : Integer.MAX_VALUE;
     }
 
     /**
-     * A consumer that will be invoked first when the {@link #execute()} method gets invoked.
+     * Returns the number of invocations of the given group that are waiting to be started because
+     * of the concurrency limit of the group.
      *
-     * @param onStart the "on start" handler.
-     * @return the service invocation
+     * @param group the name of the group (or of the invocations)
+     * @return the number of queued invocations
      */
-    public ServiceInvocation<T> onStart(Consumer<String> onStart) {
-        this.onStart = onStart;
-        return this;
+    public static int getQueueLength(String group) {
+        Bulkhead bulkhead = BULKHEADS.get(group);
+        return bulkhead != null ? bulkhead.getQueueLength() : 0;
     }
 
     /**
-     * A consumer that will be invoked when the backend service invocation was successful.
-     * The consumer will receive the expected result object.
+     * Sets the group of this invocation, used for limiting the number of concurrent invocations.
+     * The default is null, in which case the name of the invocation will be used as the group.
      *
-     * @param onSuccess the "on success" handler.
+     * @param group the name of the group
      * @return the service invocation
+     * @see #setMaxConcurrency(String, int)
      */
-    public ServiceInvocation<T> onSuccess(Consumer<T> onSuccess) {
-        this.onSuccess = onSuccess;
+    public ServiceInvocation<T> withGroup(String group) {
+        this.group = group;
         return this;
     }
 
     /**
-     * A consumer that will be invoked when the backend service invocation was successful.
-     * The consumer will receive the response object wrapping the expected result object.
+     * Returns the group of this invocation (see also {@link #withGroup(String)}).
      *
-     * @param onSuccessDetailed the "on success detailed" handler.
-     * @return the service invocation
+     * @return the group or null
      */
-    public ServiceInvocation<T> onSuccessDetailed(Consumer<Response<T>> onSuccessDetailed) {
-        this.onSuccessDetailed = onSuccessDetailed;
-        return this;
+    public String getGroup() {
+        return group;
     }
 
     /**
-     * A consumer that will be invoked when the backend service invocation was not successful.
-     * The consumer will receive the name of the service invocation and an error message.
+     * Sets the priority of this invocation. Queued invocations with a higher priority will be started
+     * first when the number of concurrent invocations of their group is limited. The default is
+     * {@link Priority#INTERACTIVE}.
      *
-     * @param onFailure the "on failure" handler.
+     * @param priority the priority
      * @return the service invocation
+     * @see #setMaxConcurrency(String, int)
      */
-    public ServiceInvocation<T> onFailure(BiConsumer<String, String> onFailure) {
-        this.onFailure = onFailure;
+    public ServiceInvocation<T> withPriority(Priority priority) {
+        this.priority = Objects.requireNonNull(priority, "priority can not be null");
         return this;
     }
 
     /**
-     * A default consumer that will be invoked when the backend service invocation was not successful.
-     * The consumer will receive the name of the service invocation and an error message.
+     * Returns the priority of this invocation (see also {@link #withPriority(Priority)}).
      *
-     * @param onFailureDefault the "on failure default" handler.
-     * @return the service invocation
+     * @return the priority
      */
-    public ServiceInvocation<T> onFailureDefault(BiConsumer<String, String> onFailureDefault) {
-        this.onFailureDefault = onFailureDefault;
-        return this;
+    public Priority getPriority() {
+        return priority;
     }
 
     /**
-     * A consumer that will be invoked when the backend service invocation was not successful.
-     * The consumer will receive the name of the service invocation and the full response object.
+     * Installs a circuit breaker for the given group (or name) of invocations. After the given number
+     * of consecutive failures (exceptions or server errors) the circuit "opens": for the given duration,
+     * invocations of the group fail right away with a {@link CircuitOpenException} instead of calling the
+     * service. After that, a single trial call is let through. If it succeeds, the circuit closes again,
+     * otherwise it stays open for another period.
      *
-     * @param onFailureDetailed the "on failure detailed" handler.
-     * @return the service invocation
+     * @param group            the name of the group (or of the invocations)
+     * @param failureThreshold the number of consecutive failures that open the circuit
+     * @param openDuration     the time during which invocations fail without calling the service
+     * @see #withGroup(String)
      */
-    public ServiceInvocation<T> onFailureDetailed(BiConsumer<String, Response> onFailureDetailed) {
-        this.onFailureDetailed = onFailureDetailed;
-        return this;
+    public static void setCircuitBreaker(String group, int failureThreshold, Duration openDuration) {
+        Objects.requireNonNull(group, "group can not be null");
+        Objects.requireNonNull(openDuration, "open duration can not be null");
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failure threshold must be larger than zero but was " + failureThreshold);
+        }
+
+        CIRCUIT_BREAKERS.put(group, new CircuitBreaker(group, failureThreshold, openDuration));
     }
 
     /**
-     * A default consumer that will be invoked when the backend service invocation was not successful.
-     * The consumer will receive the name of the service invocation and the full response object.
+     * Removes the circuit breaker of the given group (or name) of invocations.
      *
-     * @param onFailureDetailedDefault the "on failure detailed default" handler.
-     * @return the service invocation
+     * @param group the name of the group (or of the invocations)
      */
-    public ServiceInvocation<T> onFailureDetailedDefault(BiConsumer<String, Response> onFailureDetailedDefault) {
-        this.onFailureDetailedDefault = onFailureDetailedDefault;
-        return this;
+    public static void removeCircuitBreaker(String group) {
+        CIRCUIT_BREAKERS.remove(group);
     }
 
     /**
-     * A consumer that will be invoked when the backend returns the given HTTP status code. The consumer
-     * receives the name of the service invocation and the status message.
+     * Determines whether the circuit breaker of the given group (or name) of invocations is currently
+     * open, meaning that invocations fail without calling the service.
      *
-     * @param code the status code for which the consumer will be registered
-     * @param onStatusCode the "on status code" handler.
-     * @return the service invocation
+     * @param group the name of the group (or of the invocations)
+     * @return true if the circuit is open
      */
-    public ServiceInvocation<T> onStatusCode(HttpStatusCode code, BiConsumer<String, String> onStatusCode) {
-        if (this.onStatusCode == null) {
-            this.onStatusCode = new HashMap<>();
-        }
-        this.onStatusCode.put(code, onStatusCode);
-        return this;
+    public static boolean isCircuitOpen(String group) {
+        CircuitBreaker circuitBreaker = CIRCUIT_BREAKERS.get(group);
+        return circuitBreaker != null && circuitBreaker.isOpen();
     }
 
     /**
-     * A default consumer that will be invoked when the backend returns the given HTTP status code. The consumer
-     * receives the name of the service invocation and the status message.
+     * Sets the policy used for retrying the invocation when the service call fails with a
+     * temporary error. The default is null, which disables retries.
+     *
+     * @param retryPolicy the retry policy
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> withRetry(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Returns the policy used for retrying the invocation (see also {@link #withRetry(RetryPolicy)}).
+     *
+     * @return the retry policy or null
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Returns the cache used by the service invocations that have been configured via
+     * {@link #withCaching(Object, Duration, Duration)}.
+     *
+     * @return the shared response cache
+     */
+    public static ServiceInvocationCache getCache() {
+        return CACHE;
+    }
+
+    /**
+     * Returns the latency metrics collected for all service invocations, e.g. to find out whether
+     * the time of an invocation was spent waiting for a thread, waiting for the server, or waiting
+     * for the UI thread.
+     *
+     * @return the shared metrics
+     */
+    public static ServiceInvocationMetrics getMetrics() {
+        return METRICS;
+    }
+
+    /**
+     * Enables caching of the response of this invocation. See {@link #withCaching(Object, Duration, Duration)}.
+     *
+     * @param key        the key identifying the response in the cache
+     * @param timeToLive the time after which the cached response will no longer be used
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> withCaching(Object key, Duration timeToLive) {
+        return withCaching(key, timeToLive, Duration.ZERO);
+    }
+
+    /**
+     * Enables caching of the response of this invocation. A successful response will be stored in
+     * the {@link #getCache() cache} under the given key. As long as the cached response is younger than the
+     * given time to live, invocations with the same key will pass it to their success handlers without calling
+     * the service. After that, the response can still be used for the given "stale while revalidate" duration,
+     * but the service will then be called in the background to refresh the cache for the next invocation.
+     * Older responses will not be used anymore.
+     * <p>
+     * Please note that invocations using the same cached response also receive the same result object.
+     *
+     * @param key                  the key identifying the response in the cache, e.g. the name of the invocation plus its parameters
+     * @param timeToLive           the time during which the cached response will be used without calling the service
+     * @param staleWhileRevalidate the additional time during which the cached response will be used while the service gets called in the background
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> withCaching(Object key, Duration timeToLive, Duration staleWhileRevalidate) {
+        Objects.requireNonNull(timeToLive, "time to live can not be null");
+        Objects.requireNonNull(staleWhileRevalidate, "stale while revalidate can not be null");
+        if (timeToLive.isNegative() || staleWhileRevalidate.isNegative()) {
+            throw new IllegalArgumentException("durations can not be negative");
+        }
+
+        this.cacheKey = key;
+        this.timeToLive = timeToLive;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        return this;
+    }
+
+    /**
+     * Returns the key of the cached response of this invocation (see also
+     * {@link #withCaching(Object, Duration, Duration)}).
+     *
+     * @return the cache key or null if caching is disabled
+     */
+    public Object getCacheKey() {
+        return cacheKey;
+    }
+
+    /**
+     * Sets a key used for de-duplicating concurrent invocations of the same service. When an invocation
+     * with an equal key is already calling the service, then this invocation will not call the service
+     * itself but wait for the response of the other invocation instead. The handlers of this invocation
+     * will still be invoked, receiving the same response (and result object). Invocations only share a
+     * call if their cache keys (see {@link #withCaching(Object, Duration, Duration)}) are equal, too. The default is
+     * null, which disables de-duplication.
+     *
+     * @param key the key identifying the service call, e.g. the name of the invocation plus its parameters
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> withDeduplicationKey(Object key) {
+        deduplicationKey = key;
+        return this;
+    }
+
+    /**
+     * Returns the key used for de-duplicating concurrent invocations of the same service (see also
+     * {@link #withDeduplicationKey(Object)}).
+     *
+     * @return the de-duplication key or null
+     */
+    public Object getDeduplicationKey() {
+        return deduplicationKey;
+    }
+
+    /**
+     * Determines whether the worker thread waits for the handlers (success, failure, finally, ...) to
+     * be invoked on the UI thread. The default is true. When set to false, the handlers get queued on the
+     * UI thread in the same order and the worker thread gets released right away. This is recommended when
+     * executing many invocations at the same time, e.g. on the {@link #virtualThreadExecutor()}.
+     *
+     * @param blocking true if the worker thread should wait for the handlers
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> withBlockingHandOff(boolean blocking) {
+        blockingHandOff = blocking;
+        return this;
+    }
+
+    /**
+     * Returns true if the worker thread waits for the handlers to be invoked on the UI thread (see
+     * also {@link #withBlockingHandOff(boolean)}).
+     *
+     * @return true if the hand-off to the UI thread is blocking
+     */
+    public boolean isBlockingHandOff() {
+        return blockingHandOff;
+    }
+
+    /**
+     * An easy way to explicitly make the service invocation fail in order to test the handling of
+     * failures by the application.
+     *
+     * @param failure enables / disables the failure
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> withSimulatingFailure(boolean failure) {
+        simulatingFailure = failure;
+        return this;
+    }
+
+    /**
+     * Returns true if the service invocation will intentionally fail (see also {@link #withSimulatingFailure(boolean)}).
+     *
+     * @return true if the invocation will fail
+     */
+    public boolean isSimulatingFailure() {
+        return simulatingFailure;
+    }
+
+    /**
+     * A consumer that will be invoked first when the {@link #execute()} method gets invoked.
+     *
+     * @param onStart the "on start" handler.
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> onStart(Consumer<String> onStart) {
+        this.onStart = onStart;
+        return this;
+    }
+
+    /**
+     * A consumer that will be invoked when the backend service invocation was successful.
+     * The consumer will receive the expected result object.
+     *
+     * @param onSuccess the "on success" handler.
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> onSuccess(Consumer<T> onSuccess) {
+        this.onSuccess = onSuccess;
+        return this;
+    }
+
+    /**
+     * A consumer that will be invoked when the backend service invocation was successful.
+     * The consumer will receive the response object wrapping the expected result object.
+     *
+     * @param onSuccessDetailed the "on success detailed" handler.
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> onSuccessDetailed(Consumer<Response<T>> onSuccessDetailed) {
+        this.onSuccessDetailed = onSuccessDetailed;
+        return this;
+    }
+
+    /**
+     * A consumer that will be invoked when the backend service invocation was not successful.
+     * The consumer will receive the name of the service invocation and an error message.
+     *
+     * @param onFailure the "on failure" handler.
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> onFailure(BiConsumer<String, String> onFailure) {
+        this.onFailure = onFailure;
+        return this;
+    }
+
+    /**
+     * A default consumer that will be invoked when the backend service invocation was not successful.
+     * The consumer will receive the name of the service invocation and an error message.
+     *
+     * @param onFailureDefault the "on failure default" handler.
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> onFailureDefault(BiConsumer<String, String> onFailureDefault) {
+        this.onFailureDefault = onFailureDefault;
+        return this;
+    }
+
+    /**
+     * A consumer that will be invoked when the backend service invocation was not successful.
+     * The consumer will receive the name of the service invocation and the full response object.
+     *
+     * @param onFailureDetailed the "on failure detailed" handler.
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> onFailureDetailed(BiConsumer<String, Response> onFailureDetailed) {
+        this.onFailureDetailed = onFailureDetailed;
+        return this;
+    }
+
+    /**
+     * A default consumer that will be invoked when the backend service invocation was not successful.
+     * The consumer will receive the name of the service invocation and the full response object.
+     *
+     * @param onFailureDetailedDefault the "on failure detailed default" handler.
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> onFailureDetailedDefault(BiConsumer<String, Response> onFailureDetailedDefault) {
+        this.onFailureDetailedDefault = onFailureDetailedDefault;
+        return this;
+    }
+
+    /**
+     * A consumer that will be invoked when the backend returns the given HTTP status code. The consumer
+     * receives the name of the service invocation and the status message.
+     *
+     * @param code the status code for which the consumer will be registered
+     * @param onStatusCode the "on status code" handler.
+     * @return the service invocation
+     */
+    public ServiceInvocation<T> onStatusCode(HttpStatusCode code, BiConsumer<String, String> onStatusCode) {
+        if (this.onStatusCode == null) {
+            this.onStatusCode = new HashMap<>();
+        }
+        this.onStatusCode.put(code, onStatusCode);
+        return this;
+    }
+
+    /**
+     * A default consumer that will be invoked when the backend returns the given HTTP status code. The consumer
+     * receives the name of the service invocation and the status message.
      *
      * @param code the status code for which the consumer will be registered
      * @param onStatusCodeDefault the "on status code" handler.
@@ -510,6 +1354,685 @@ public final class ServiceInvocation<T> implements Worker<T> {
         return this;
     }
 
+    private void complete(CompletableFuture<Void> result, Throwable failure) {
+        if (blockingHandOff && groupHandOff == null) {
+            recordMetrics();
+
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(null);
+            }
+        } else {
+            // queued behind the handlers of this invocation
+            runLater(() -> {
+                applyPendingUpdate();
+                recordMetrics();
+
+                Throwable error = failure != null ? failure : handOffFailure;
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(null);
+                }
+            });
+        }
+    }
+
+    /*
+     * Called once per invocation, after its last handler has been invoked (or after it has been
+     * cancelled before it got started).
+     */
+    private void recordMetrics() {
+        long now = System.nanoTime();
+
+        ServiceInvocationMetrics.Outcome outcome = isCancelled() || metricsOutcome == null ? ServiceInvocationMetrics.Outcome.CANCELLED : metricsOutcome;
+        long queueWait = (startedAt != 0 ? startedAt : now) - executedAt;
+        long handOffTime = respondedAt != 0 ? now - respondedAt : 0;
+
+        try {
+            METRICS.record(new ServiceInvocationMetrics.Sample(getName(), outcome, statusCode, attempts, queueWait, serverTime.get(), handOffTime));
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, "unable to record the metrics of service invocation: " + getName(), ex);
+        }
+
+        ServiceInvocationEvent event = this.event;
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.name = getName();
+            event.outcome = outcome.name();
+            event.statusCode = statusCode;
+            event.attempts = attempts;
+            event.queueWait = queueWait;
+            event.serverTime = serverTime.get();
+            event.handOffTime = handOffTime;
+            event.commit();
+        }
+    }
+
+    private static ServiceInvocationEvent newEvent() {
+        return FLIGHT_RECORDER_AVAILABLE ? new ServiceInvocationEvent() : null;
+    }
+
+    private void handOffUnlessCancelled(Runnable runnable) throws ExecutionException, InterruptedException {
+        handOff(() -> {
+            if (!isCancelled()) {
+                runnable.run();
+            }
+        });
+    }
+
+    private void handOff(Runnable runnable) throws ExecutionException, InterruptedException {
+        if (blockingHandOff && groupHandOff == null) {
+            runAndWait(() -> {
+                applyPendingUpdate();
+                runnable.run();
+            });
+        } else {
+            runLater(() -> {
+                try {
+                    applyPendingUpdate();
+                    runnable.run();
+                } catch (Exception e) {
+                    handOffFailed(e);
+                }
+            });
+        }
+    }
+
+    /*
+     * Queues the given runnable on the UI thread, or passes it to the group of this invocation, which
+     * runs the handlers of all its members at once.
+     */
+    private void runLater(Runnable runnable) {
+        GroupHandOff groupHandOff = this.groupHandOff;
+        if (groupHandOff != null) {
+            groupHandOff.handOff(runnable);
+        } else {
+            Platform.runLater(runnable);
+        }
+    }
+
+    void setGroupHandOff(GroupHandOff groupHandOff) {
+        this.groupHandOff = groupHandOff;
+    }
+
+    private void notifyGroup() {
+        GroupHandOff groupHandOff = this.groupHandOff;
+        if (groupHandOff != null) {
+            groupHandOff.finished(this);
+        }
+    }
+
+    /*
+     * Implemented by the group an invocation is a member of. The group collects the handlers of
+     * its members and invokes them together, once all members have finished.
+     */
+    interface GroupHandOff {
+
+        void handOff(Runnable runnable);
+
+        void finished(ServiceInvocation<?> invocation);
+    }
+
+    /*
+     * Returns the final state of the invocation as soon as it is known on the worker thread, which
+     * is before the state property gets updated.
+     */
+    State getFinalState() {
+        return finalState;
+    }
+
+    /*
+     * Invoked on the UI thread when a handler failed while the blocking hand-off was disabled. Mirrors
+     * what happens in blocking mode, where the failure propagates to the worker thread.
+     */
+    private void handOffFailed(Exception e) {
+        LOG.log(Level.SEVERE, "error when invoking handler of service invocation: " + getName(), e);
+
+        if (handOffFailure != null || isCancelled()) {
+            return;
+        }
+
+        handOffFailure = e;
+
+        updateState(State.FAILED, "Server-side error", e);
+        applyPendingUpdate();
+
+        BiConsumer<String, Exception> onExceptionHandler = getOnException();
+        if (onExceptionHandler != null) {
+            try {
+                onExceptionHandler.accept(name, e);
+            } catch (Exception ex) {
+                LOG.log(Level.SEVERE, "error when trying to propagate error message from service invocation: " + getName(), ex);
+            }
+        }
+    }
+
+    private void updateMessage(String message) {
+        postUpdate(update -> update.message = message);
+    }
+
+    private void updateState(State state, String message, Throwable exception) {
+        postUpdate(update -> {
+            // a cancelled invocation stays cancelled
+            if (isCancelled() && state != State.CANCELLED) {
+                return;
+            }
+
+            if (state == State.SUCCEEDED || state == State.FAILED || state == State.CANCELLED) {
+                finalState = state;
+            }
+
+            update.state = state;
+            update.message = message;
+            if (exception != null) {
+                update.exception = exception;
+            }
+        });
+    }
+
+    private void updateFinished() {
+        postUpdate(update -> {
+            update.running = false;
+            update.progress = 1d;
+        });
+    }
+
+    private void postUpdate(Consumer<PendingUpdate> change) {
+        boolean enqueue;
+
+        synchronized (pendingUpdateLock) {
+            enqueue = pendingUpdate == null;
+            if (enqueue) {
+                pendingUpdate = new PendingUpdate();
+            }
+            change.accept(pendingUpdate);
+        }
+
+        if (enqueue) {
+            UpdateQueue.add(this);
+        }
+    }
+
+    /*
+     * Applies the collected property changes. Must be called on the UI thread.
+     */
+    @SuppressWarnings("unchecked")
+    void applyPendingUpdate() {
+        PendingUpdate update;
+
+        synchronized (pendingUpdateLock) {
+            update = pendingUpdate;
+            pendingUpdate = null;
+        }
+
+        if (update == null) {
+            return;
+        }
+
+        if (update.valueChanged) {
+            value.set((T) update.value);
+        }
+        if (update.state != null) {
+            state.set(update.state);
+        }
+        if (update.message != null) {
+            message.set(update.message);
+        }
+        if (update.exception != null) {
+            exception.set(update.exception);
+        }
+        if (update.running != null) {
+            running.set(update.running);
+        }
+        if (update.progress != null) {
+            progress.set(update.progress);
+        }
+        if (update.queueWait != null) {
+            queueWait.set(update.queueWait);
+        }
+    }
+
+    /*
+     * The response returned by the service. The error body can only be read once, so it gets
+     * read right away, which allows invocations to share the outcome.
+     */
+    private static final class Outcome<T> {
+
+        private final Response<T> response;
+        private final String errorMessage;
+
+        private Outcome(Response<T> response) throws IOException {
+            this.response = response;
+            this.errorMessage = response.isSuccessful() || response.errorBody() == null ? "" : response.errorBody().string();
+        }
+    }
+
+    /*
+     * The property changes of an invocation that have not been applied on the UI thread, yet.
+     * Later changes overwrite earlier ones.
+     */
+    private static final class PendingUpdate {
+
+        private State state;
+        private Object value;
+        private boolean valueChanged;
+        private String message;
+        private Throwable exception;
+        private Boolean running;
+        private Double progress;
+        private Duration queueWait;
+    }
+
+    /*
+     * Collects the invocations with pending property changes, so that the changes of all of them
+     * get applied by a single runnable on the UI thread instead of one runnable per change.
+     */
+    private static final class UpdateQueue {
+
+        private static final Queue<ServiceInvocation<?>> INVOCATIONS = new ConcurrentLinkedQueue<>();
+
+        private static final AtomicBoolean SCHEDULED = new AtomicBoolean();
+
+        static void add(ServiceInvocation<?> invocation) {
+            INVOCATIONS.add(invocation);
+
+            if (SCHEDULED.compareAndSet(false, true)) {
+                Platform.runLater(UpdateQueue::flush);
+            }
+        }
+
+        private static void flush() {
+            SCHEDULED.set(false);
+
+            ServiceInvocation<?> invocation;
+            while ((invocation = INVOCATIONS.poll()) != null) {
+                invocation.applyPendingUpdate();
+            }
+        }
+    }
+
+    /*
+     * Limits the number of concurrently running invocations of a group. Invocations exceeding the
+     * limit are queued by priority and in the order of their submission.
+     */
+    private static final class Bulkhead {
+
+        private final String group;
+
+        private final PriorityQueue<Queued> queue = new PriorityQueue<>();
+
+        private int maxConcurrency = Integer.MAX_VALUE;
+
+        private int running;
+
+        private long sequence;
+
+        private Bulkhead(String group) {
+            this.group = group;
+        }
+
+        synchronized int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        synchronized int getQueueLength() {
+            return queue.size();
+        }
+
+        void setMaxConcurrency(int maxConcurrency) {
+            synchronized (this) {
+                this.maxConcurrency = maxConcurrency;
+            }
+            dispatchQueued();
+        }
+
+        /*
+         * Returns true if the invocation had to be queued.
+         */
+        boolean submit(ServiceInvocation<?> invocation, Executor executor, Runnable task) {
+            synchronized (this) {
+                if (running >= maxConcurrency) {
+                    invocation.queuedAt = System.nanoTime();
+                    queue.add(new Queued(invocation, executor, task, sequence++));
+                    LOG.fine("queued service invocation " + invocation.getName() + " in group " + group + ", queue length: " + queue.size());
+                    invocation.updateMessage("Waiting (" + queue.size() + " queued)");
+                    return true;
+                }
+                running++;
+            }
+
+            dispatch(executor, task);
+            return false;
+        }
+
+        synchronized void remove(ServiceInvocation<?> invocation) {
+            queue.removeIf(queued -> queued.invocation == invocation);
+        }
+
+        private void release() {
+            synchronized (this) {
+                running--;
+            }
+            dispatchQueued();
+        }
+
+        private void dispatchQueued() {
+            while (true) {
+                Queued next;
+                synchronized (this) {
+                    if (running >= maxConcurrency || queue.isEmpty()) {
+                        return;
+                    }
+                    next = queue.poll();
+                    running++;
+                }
+
+                dispatch(next.executor, next.task);
+            }
+        }
+
+        private void dispatch(Executor executor, Runnable task) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        release();
+                    }
+                });
+            } catch (RuntimeException ex) {
+                release();
+                throw ex;
+            }
+        }
+
+        private static final class Queued implements Comparable<Queued> {
+
+            private final ServiceInvocation<?> invocation;
+            private final Executor executor;
+            private final Runnable task;
+            private final long sequence;
+
+            private Queued(ServiceInvocation<?> invocation, Executor executor, Runnable task, long sequence) {
+                this.invocation = invocation;
+                this.executor = executor;
+                this.task = task;
+                this.sequence = sequence;
+            }
+
+            @Override
+            public int compareTo(Queued other) {
+                int result = invocation.priority.compareTo(other.invocation.priority);
+                return result != 0 ? result : Long.compare(sequence, other.sequence);
+            }
+        }
+    }
+
+    /*
+     * Schedules the retries of all invocations on a single daemon thread, created lazily.
+     */
+    private static final class RetryScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(
+                ExecutorUtil.daemonThreadFactory("Service Invocation Retry Thread", Thread.NORM_PRIORITY));
+    }
+
+    /*
+     * Counts the consecutive failures of a group of invocations and lets them fail fast while
+     * the circuit is open.
+     */
+    private static final class CircuitBreaker {
+
+        private final String group;
+
+        private final int failureThreshold;
+
+        private final long openDuration;
+
+        private int failures;
+
+        private boolean open;
+
+        private long openUntil;
+
+        // the trial call made while the circuit is half open, null if there is none
+        private Object trialCall;
+
+        private CircuitBreaker(String group, int failureThreshold, Duration openDuration) {
+            this.group = group;
+            this.failureThreshold = failureThreshold;
+            this.openDuration = openDuration.toNanos();
+        }
+
+        synchronized boolean isOpen() {
+            return open;
+        }
+
+        /*
+         * The given object identifies the call, it has to be passed to callFinished(), too.
+         */
+        synchronized boolean allowRequest(Object call) {
+            if (!open) {
+                return true;
+            }
+
+            // half open: let a single trial call through
+            if (trialCall == null && System.nanoTime() - openUntil >= 0) {
+                trialCall = call;
+                return true;
+            }
+
+            return false;
+        }
+
+        /*
+         * Successful is null if the call was cancelled.
+         */
+        synchronized void callFinished(Object call, Boolean successful) {
+            if (open) {
+                if (call != trialCall) {
+                    // a call that was started before the circuit opened
+                    return;
+                }
+                trialCall = null;
+            }
+
+            if (successful == null) {
+                return;
+            }
+
+            if (successful) {
+                failures = 0;
+                open = false;
+            } else if (open || ++failures >= failureThreshold) {
+                LOG.warning("opening circuit of group " + group + " after " + failures + " consecutive failures");
+                open = true;
+                openUntil = System.nanoTime() + openDuration;
+            }
+        }
+    }
+
+    /**
+     * The exception passed to the exception handlers of invocations that did not call their service
+     * because the circuit breaker of their group is open.
+     *
+     * @see #setCircuitBreaker(String, int, Duration)
+     */
+    public static class CircuitOpenException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructs a new exception.
+         *
+         * @param group the name of the group (or of the invocations) whose circuit is open
+         */
+        public CircuitOpenException(String group) {
+            super("circuit is open, not calling service: " + group);
+        }
+    }
+
+    /**
+     * Determines if and when a failed service invocation will be retried. By default, invocations will
+     * be retried when the server responds with one of the status codes 408, 429, 502, 503, or 504, or when
+     * the call fails with an {@link IOException} (e.g. a timeout or a refused connection). The delay between
+     * the attempts grows exponentially and is randomized (jitter), so that many clients do not retry at the
+     * very same time. Policies are immutable, hence a single policy can be shared by many invocations.
+     *
+     * @see #withRetry(RetryPolicy)
+     */
+    public static final class RetryPolicy {
+
+        private final int maxAttempts;
+
+        private final Duration initialDelay;
+
+        private final Duration maxDelay;
+
+        private final double multiplier;
+
+        private final double jitter;
+
+        private final Set<HttpStatusCode> statusCodes;
+
+        private final Predicate<Exception> exceptions;
+
+        private RetryPolicy(int maxAttempts, Duration initialDelay) {
+            this(maxAttempts, initialDelay, Duration.ofSeconds(30), 2, 0.5,
+                    EnumSet.of(HttpStatusCode.REQUEST_TIMEOUT, HttpStatusCode.TOO_MANY_REQUESTS, HttpStatusCode.BAD_GATEWAY,
+                            HttpStatusCode.SERVICE_UNAVAILABLE, HttpStatusCode.GATEWAY_TIMEOUT),
+                    ex -> ex instanceof IOException && !(ex instanceof CircuitOpenException));
+        }
+
+        private RetryPolicy(int maxAttempts, Duration initialDelay, Duration maxDelay, double multiplier, double jitter,
+                            Set<HttpStatusCode> statusCodes, Predicate<Exception> exceptions) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("max attempts must be larger than zero but was " + maxAttempts);
+            }
+            this.maxAttempts = maxAttempts;
+            this.initialDelay = Objects.requireNonNull(initialDelay, "initial delay can not be null");
+            this.maxDelay = maxDelay;
+            this.multiplier = multiplier;
+            this.jitter = jitter;
+            this.statusCodes = statusCodes;
+            this.exceptions = exceptions;
+        }
+
+        /**
+         * Creates a new policy that doubles the delay after each attempt.
+         *
+         * @param maxAttempts  the maximum number of attempts, including the first one
+         * @param initialDelay the delay before the second attempt
+         * @return the retry policy
+         */
+        public static RetryPolicy exponentialBackoff(int maxAttempts, Duration initialDelay) {
+            return new RetryPolicy(maxAttempts, initialDelay);
+        }
+
+        /**
+         * Returns a copy of this policy with the given maximum delay between two attempts. The
+         * default is 30 seconds. The maximum also applies to the randomized delays.
+         *
+         * @param maxDelay the maximum delay
+         * @return the new retry policy
+         */
+        public RetryPolicy withMaxDelay(Duration maxDelay) {
+            Objects.requireNonNull(maxDelay, "max delay can not be null");
+            return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, statusCodes, exceptions);
+        }
+
+        /**
+         * Returns a copy of this policy with the given factor by which the delay grows after each
+         * attempt. The default is 2.
+         *
+         * @param multiplier the backoff multiplier
+         * @return the new retry policy
+         */
+        public RetryPolicy withMultiplier(double multiplier) {
+            if (multiplier < 1) {
+                throw new IllegalArgumentException("multiplier can not be smaller than one but was " + multiplier);
+            }
+            return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, statusCodes, exceptions);
+        }
+
+        /**
+         * Returns a copy of this policy with the given amount of randomization applied to the delays.
+         * A value of 0.5 (the default) means that the delays vary between 50% and 150% of their nominal
+         * value. A value of 0 disables the randomization.
+         *
+         * @param jitter the jitter between 0 and 1
+         * @return the new retry policy
+         */
+        public RetryPolicy withJitter(double jitter) {
+            if (jitter < 0 || jitter > 1) {
+                throw new IllegalArgumentException("jitter must be between zero and one but was " + jitter);
+            }
+            return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, statusCodes, exceptions);
+        }
+
+        /**
+         * Returns a copy of this policy that retries the responses with the given status codes.
+         *
+         * @param codes the status codes
+         * @return the new retry policy
+         */
+        public RetryPolicy retryOn(HttpStatusCode... codes) {
+            Set<HttpStatusCode> statusCodes = codes.length == 0 ? EnumSet.noneOf(HttpStatusCode.class) : EnumSet.copyOf(Arrays.asList(codes));
+            return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, statusCodes, exceptions);
+        }
+
+        /**
+         * Returns a copy of this policy that uses the given predicate for determining which exceptions
+         * will be retried.
+         *
+         * @param exceptions the predicate
+         * @return the new retry policy
+         */
+        public RetryPolicy retryOnException(Predicate<Exception> exceptions) {
+            Objects.requireNonNull(exceptions, "predicate can not be null");
+            return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, statusCodes, exceptions);
+        }
+
+        /**
+         * Returns the maximum number of attempts, including the first one.
+         *
+         * @return the maximum number of attempts
+         */
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        /**
+         * Returns the (randomized) delay before the attempt following the given one.
+         *
+         * @param attempt the number of the failed attempt, starting with 1
+         * @return the delay
+         */
+        public Duration getDelay(int attempt) {
+            double delay = initialDelay.toMillis() * Math.pow(multiplier, attempt - 1);
+
+            if (jitter > 0) {
+                delay *= 1 - jitter + 2 * jitter * ThreadLocalRandom.current().nextDouble();
+            }
+
+            return Duration.ofMillis(Math.round(Math.min(delay, maxDelay.toMillis())));
+        }
+
+        boolean shouldRetry(int attempt, int statusCode) {
+            return attempt < maxAttempts && statusCodes.contains(HttpStatusCode.fromStatusCode(statusCode));
+        }
+
+        boolean shouldRetry(int attempt, Exception ex) {
+            return attempt < maxAttempts && exceptions.test(ex);
+        }
+    }
+
     private void runAndWait(Runnable runnable) throws ExecutionException, InterruptedException {
         CompletableFuture<Void> result = new CompletableFuture<>();
         Platform.runLater(() -> {
@@ -646,6 +2169,26 @@ public final class ServiceInvocation<T> implements Worker<T> {
         return message;
     }
 
+    // queue wait
+
+    private final ReadOnlyObjectWrapper<Duration> queueWait = new ReadOnlyObjectWrapper<>(this, "queueWait", Duration.ZERO);
+
+    /**
+     * The time the invocation has spent waiting in the queue of its group because the maximum number
+     * of concurrent invocations of the group had been reached (see {@link #setMaxConcurrency(String, int)}).
+     * The value gets updated when the invocation leaves the queue, retries that had to wait again are
+     * included. While waiting, the state of the invocation is {@link State#SCHEDULED}.
+     *
+     * @return the time spent waiting in the queue
+     */
+    public ReadOnlyObjectProperty<Duration> queueWaitProperty() {
+        return queueWait.getReadOnlyProperty();
+    }
+
+    public Duration getQueueWait() {
+        return queueWait.get();
+    }
+
     // title
 
     private final ReadOnlyStringWrapper title = new ReadOnlyStringWrapper(this, "title");
@@ -662,9 +2205,82 @@ public final class ServiceInvocation<T> implements Worker<T> {
 
     // cancel
 
+    /**
+     * Cancels the service invocation. The worker thread of the invocation will be interrupted and
+     * the Retrofit call will be cancelled if the invocation was created with a {@link CallSupplier}.
+     * The state of the invocation changes to {@link State#CANCELLED}, the success, failure, and exception
+     * handlers will no longer be invoked, and the future returned by {@link #execute()} completes as
+     * cancelled. The "on finally" handler will still be invoked.
+     *
+     * @return true if the invocation was cancelled, false if it was not running anymore or had already been cancelled
+     */
     @Override
     public boolean cancel() {
-        throw new UnsupportedOperationException();
+        CompletableFuture<Void> result = this.result;
+        if (result == null || completed.get() || !cancelled.compareAndSet(false, true)) {
+            return false;
+        }
+
+        LOG.fine("cancelling service invocation: " + getName());
+
+        Call<T> call = this.call;
+        if (call != null) {
+            call.cancel();
+        }
+
+        task.cancel(true);
+
+        Bulkhead bulkhead = this.bulkhead;
+        if (bulkhead != null) {
+            bulkhead.remove(this);
+        }
+
+        updateState(State.CANCELLED, "Call was cancelled", null);
+
+        boolean finished = started.compareAndSet(false, true);
+        if (finished) {
+            // the worker never started, so it will also not run the finally block
+            completed.set(true);
+            updateFinished();
+        }
+
+        runOnFxThread(() -> {
+            applyPendingUpdate();
+
+            if (finished && onFinally != null) {
+                onFinally.run();
+            }
+
+            if (finished) {
+                recordMetrics();
+            }
+        });
+
+        result.cancel(false);
+
+        if (finished) {
+            notifyGroup();
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines whether the service invocation has been cancelled.
+     *
+     * @return true if the invocation has been cancelled
+     * @see #cancel()
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    private static void runOnFxThread(Runnable runnable) {
+        if (Platform.isFxApplicationThread()) {
+            runnable.run();
+        } else {
+            Platform.runLater(runnable);
+        }
     }
 
     /**
@@ -678,4 +2294,18 @@ public final class ServiceInvocation<T> implements Worker<T> {
 
         Response<T> get() throws Exception;
     }
+
+    /**
+     * A functional supplier interface used for providing a retrofit call that has not been
+     * executed, yet. Service invocations created with this supplier execute the call themselves,
+     * so that they can cancel it.
+     *
+     * @param <T> the result type
+     * @see ServiceInvocation#createCall(String, CallSupplier)
+     */
+    @FunctionalInterface
+    public interface CallSupplier<T> {
+
+        Call<T> get() throws Exception;
+    }
 }
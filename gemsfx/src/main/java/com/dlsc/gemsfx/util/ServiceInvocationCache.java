@@ -0,0 +1,220 @@
+package com.dlsc.gemsfx.util;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import retrofit2.Response;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * A cache for the responses of {@link ServiceInvocation}s. Invocations opt into caching via
+ * {@link ServiceInvocation#withCaching(Object, Duration, Duration)}. The cache holds a limited number of
+ * successful responses and evicts the least recently used ones when the limit has been reached.
+ * <p>
+ * When a cached response has expired the service will be called again. If the server returned an
+ * {@code ETag} header with the cached response, then the new request can carry an {@code If-None-Match}
+ * header and the server can answer with "304 Not Modified" instead of sending the same data again. Retrofit
+ * does not allow invocations to add headers to a call, hence this requires the interceptor returned by
+ * {@link #conditionalRequestInterceptor()} to be added to the HTTP client used by Retrofit.
+ * <pre>
+ *     OkHttpClient client = new OkHttpClient.Builder()
+ *          .addInterceptor(ServiceInvocationCache.conditionalRequestInterceptor())
+ *          .build();
+ * </pre>
+ *
+ * @see ServiceInvocation#getCache()
+ */
+public final class ServiceInvocationCache {
+
+    /**
+     * The freshness of a cached response with respect to the caching settings of an invocation.
+     */
+    enum Freshness {
+
+        /**
+         * The response can be used without calling the service.
+         */
+        FRESH,
+
+        /**
+         * The response can be used but the service needs to be called in the background.
+         */
+        STALE,
+
+        /**
+         * The response can not be used anymore.
+         */
+        EXPIRED
+    }
+
+    private static final ThreadLocal<String> IF_NONE_MATCH = new ThreadLocal<>();
+
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private int maxEntries;
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param maxEntries the maximum number of responses kept by the cache
+     */
+    public ServiceInvocationCache(int maxEntries) {
+        this(maxEntries, System::nanoTime);
+    }
+
+    ServiceInvocationCache(int maxEntries, LongSupplier ticker) {
+        setMaxEntries(maxEntries);
+        this.ticker = Objects.requireNonNull(ticker);
+    }
+
+    /**
+     * Returns the maximum number of responses kept by the cache.
+     *
+     * @return the maximum number of entries
+     */
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Sets the maximum number of responses kept by the cache. The least recently used responses
+     * will be evicted if the cache currently holds more responses.
+     *
+     * @param maxEntries the maximum number of entries
+     */
+    public synchronized void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("max entries must be larger than zero but was " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        evict();
+    }
+
+    /**
+     * Removes the response stored for the given key, e.g. after the data on the server has been
+     * changed by the application.
+     *
+     * @param key the cache key
+     */
+    public synchronized void invalidate(Object key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all responses from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of responses currently stored in the cache.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized Entry get(Object key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(Object key, Response<?> response) {
+        entries.put(key, new Entry(response, response.headers().get("ETag"), ticker.getAsLong()));
+        evict();
+    }
+
+    /*
+     * Called when the server confirmed that the cached response is still valid.
+     */
+    synchronized void revalidated(Object key, Entry entry) {
+        if (entries.get(key) == entry) {
+            entries.put(key, new Entry(entry.response, entry.etag, ticker.getAsLong()));
+        }
+    }
+
+    Freshness getFreshness(Entry entry, Duration timeToLive, Duration staleWhileRevalidate) {
+        long age = ticker.getAsLong() - entry.storedAt;
+        if (age < timeToLive.toNanos()) {
+            return Freshness.FRESH;
+        }
+        if (age < timeToLive.plus(staleWhileRevalidate).toNanos()) {
+            return Freshness.STALE;
+        }
+        return Freshness.EXPIRED;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /*
+     * Sets the entity tag sent by the interceptor for requests made on the current thread.
+     */
+    static void setIfNoneMatch(String etag) {
+        if (etag == null) {
+            IF_NONE_MATCH.remove();
+        } else {
+            IF_NONE_MATCH.set(etag);
+        }
+    }
+
+    /**
+     * Returns an interceptor that adds an {@code If-None-Match} header to the requests of service
+     * invocations for which the cache holds an expired response with an entity tag. The interceptor
+     * has to be added to the HTTP client used by Retrofit. Requests made outside of service invocations
+     * are not modified.
+     *
+     * @return the interceptor for conditional requests
+     */
+    public static Interceptor conditionalRequestInterceptor() {
+        return chain -> {
+            Request request = chain.request();
+
+            String etag = IF_NONE_MATCH.get();
+            if (etag != null && request.header("If-None-Match") == null) {
+                request = request.newBuilder().header("If-None-Match", etag).build();
+            }
+
+            return chain.proceed(request);
+        };
+    }
+
+    /*
+     * A successful response stored in the cache.
+     */
+    static final class Entry {
+
+        private final Response<?> response;
+
+        private final String etag;
+
+        private final long storedAt;
+
+        private Entry(Response<?> response, String etag, long storedAt) {
+            this.response = response;
+            this.etag = etag;
+            this.storedAt = storedAt;
+        }
+
+        Response<?> getResponse() {
+            return response;
+        }
+
+        String getETag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.dlsc.gemsfx.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/*
+ * The JDK Flight Recorder event emitted for every finished service invocation. The duration of the
+ * event covers the whole invocation, from its execution until its last handler has been invoked.
+ */
+@Name("com.dlsc.gemsfx.ServiceInvocation")
+@Label("Service Invocation")
+@Description("A backend call made via a service invocation")
+@Category({"GemsFX", "Service Invocation"})
+@StackTrace(false)
+class ServiceInvocationEvent extends Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Status Code")
+    @Description("The HTTP status code of the response, or 0 if there was no response")
+    int statusCode;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Queue Wait")
+    @Description("The time between the execution of the invocation and the start of the service call")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueWait;
+
+    @Label("Server Time")
+    @Description("The time spent calling the service")
+    @Timespan(Timespan.NANOSECONDS)
+    long serverTime;
+
+    @Label("Hand-off Time")
+    @Description("The time between the response of the service and the end of the last handler on the UI thread")
+    @Timespan(Timespan.NANOSECONDS)
+    long handOffTime;
+}
@@ -0,0 +1,569 @@
+package com.dlsc.gemsfx.util;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.concurrent.Worker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A group of {@link ServiceInvocation}s that get executed in parallel, e.g. all the invocations needed
+ * for loading the data of a screen. The group waits until all of its members have finished and then
+ * invokes the handlers of all members plus its own handlers in a single runnable on the UI thread. This
+ * way the screen gets updated once instead of once per invocation.
+ * <pre>
+ *         ServiceInvocation&lt;List&lt;Customer&gt;&gt; customers = ServiceInvocation.create("Load customers", () -> myService.loadCustomers().execute());
+ *         ServiceInvocation&lt;List&lt;Order&gt;&gt; orders = ServiceInvocation.create("Load orders", () -> myService.loadOrders().execute());
+ *
+ *         ServiceInvocation.all("Load screen", customers, orders)
+ *              .onSuccess(results -> show(results.get(customers), results.get(orders)))
+ *              .execute();
+ * </pre>
+ * By default, the group waits for all members even when some of them fail. In "fail fast" mode the
+ * remaining members get cancelled as soon as the first one fails.
+ *
+ * @see ServiceInvocation#all(String, ServiceInvocation[])
+ */
+public final class ServiceInvocationGroup implements Worker<ServiceInvocationGroup.Results> {
+
+    private static final Logger LOG = Logger.getLogger(ServiceInvocationGroup.class.getName());
+
+    private final String name;
+
+    private final List<ServiceInvocation<?>> invocations;
+
+    private final Map<ServiceInvocation<?>, List<Runnable>> handlers = new IdentityHashMap<>();
+
+    private final AtomicInteger finished = new AtomicInteger();
+
+    private final AtomicBoolean progressUpdateScheduled = new AtomicBoolean();
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    private boolean failFast;
+
+    private Consumer<Results> onSuccess;
+
+    private Consumer<Results> onFailure;
+
+    private Runnable onFinally;
+
+    // guarded by handlers
+    private boolean handedOff;
+
+    private volatile CompletableFuture<Void> result;
+
+    /**
+     * Constructs a new group.
+     *
+     * @param name        the name of the group
+     * @param invocations the members of the group, which must not have been executed
+     */
+    public ServiceInvocationGroup(String name, Collection<? extends ServiceInvocation<?>> invocations) {
+        this.name = Objects.requireNonNull(name, "group name can not be null");
+        this.invocations = List.copyOf(invocations);
+
+        title.set(name);
+    }
+
+    /**
+     * Returns the name of the group.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the members of the group.
+     *
+     * @return the service invocations
+     */
+    public List<ServiceInvocation<?>> getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * Determines whether the remaining members of the group will be cancelled as soon as one
+     * member fails. The default is false, which means that the group waits for all members and reports
+     * all failures at once.
+     *
+     * @param failFast true to cancel the group on the first failure
+     * @return the group
+     */
+    public ServiceInvocationGroup withFailFast(boolean failFast) {
+        this.failFast = failFast;
+        return this;
+    }
+
+    /**
+     * Returns true if the group gets cancelled on the first failure (see also {@link #withFailFast(boolean)}).
+     *
+     * @return true if fail fast is enabled
+     */
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * A consumer that will be invoked when all members of the group were successful. The
+     * consumer receives the results of all members.
+     *
+     * @param onSuccess the "on success" handler
+     * @return the group
+     */
+    public ServiceInvocationGroup onSuccess(Consumer<Results> onSuccess) {
+        this.onSuccess = onSuccess;
+        return this;
+    }
+
+    /**
+     * A consumer that will be invoked when at least one member of the group was not successful.
+     * The consumer receives the results of all members, including the failed ones.
+     *
+     * @param onFailure the "on failure" handler
+     * @return the group
+     */
+    public ServiceInvocationGroup onFailure(Consumer<Results> onFailure) {
+        this.onFailure = onFailure;
+        return this;
+    }
+
+    /**
+     * A runnable that will be invoked after all members of the group have finished, no matter
+     * if they were successful or not.
+     *
+     * @param onFinally the runnable
+     * @return the group
+     */
+    public ServiceInvocationGroup onFinally(Runnable onFinally) {
+        this.onFinally = onFinally;
+        return this;
+    }
+
+    /**
+     * Executes the members of the group with the default executor of the service invocations.
+     *
+     * @return a completable future object usable for chaining
+     * @see ServiceInvocation#getDefaultExecutor()
+     */
+    public CompletableFuture<Void> execute() {
+        return execute(ServiceInvocation.getDefaultExecutor());
+    }
+
+    /**
+     * Executes the members of the group in parallel with the given executor. The handlers of the
+     * members will be invoked together with the handlers of the group, once all members have finished.
+     * The returned future completes after all handlers have been invoked.
+     *
+     * @param executor the executor used for calling the services
+     * @return a completable future object usable for chaining
+     */
+    public CompletableFuture<Void> execute(Executor executor) {
+        Objects.requireNonNull(executor, "executor can not be null");
+
+        if (result != null) {
+            throw new IllegalStateException("service invocation group has already been executed: " + getName());
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        this.result = result;
+
+        state.set(State.RUNNING);
+        totalWork.set(invocations.size());
+        workDone.set(0);
+        running.set(true);
+        progress.set(0);
+
+        synchronized (handlers) {
+            invocations.forEach(invocation -> handlers.put(invocation, new ArrayList<>()));
+        }
+
+        for (ServiceInvocation<?> invocation : invocations) {
+            invocation.setGroupHandOff(new MemberHandOff(invocation));
+        }
+
+        if (invocations.isEmpty()) {
+            handOff();
+        } else {
+            invocations.forEach(invocation -> invocation.execute(executor));
+        }
+
+        return result;
+    }
+
+    private void deferHandler(ServiceInvocation<?> invocation, Runnable runnable) {
+        synchronized (handlers) {
+            if (!handedOff) {
+                handlers.get(invocation).add(runnable);
+                return;
+            }
+        }
+
+        // the group has already been handed off (fail fast)
+        Platform.runLater(runnable);
+    }
+
+    private void memberFinished(ServiceInvocation<?> invocation) {
+        int count = finished.incrementAndGet();
+
+        scheduleProgressUpdate();
+
+        if (invocation.getFinalState() != State.SUCCEEDED && failed.compareAndSet(false, true) && failFast && !cancelled.get()) {
+            LOG.fine("member of service invocation group " + getName() + " failed, cancelling the others");
+            handOff();
+            invocations.forEach(ServiceInvocation::cancel);
+        } else if (count == invocations.size()) {
+            handOff();
+        }
+    }
+
+    private void scheduleProgressUpdate() {
+        if (progressUpdateScheduled.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                progressUpdateScheduled.set(false);
+                updateProgress();
+            });
+        }
+    }
+
+    private void updateProgress() {
+        int count = Math.min(finished.get(), invocations.size());
+        workDone.set(count);
+        progress.set(invocations.isEmpty() ? 1 : (double) count / invocations.size());
+        if (isRunning()) {
+            message.set(count + " of " + invocations.size() + " completed");
+        }
+    }
+
+    /*
+     * Invokes the handlers of all members and of the group in a single runnable on the UI thread.
+     */
+    private void handOff() {
+        Map<ServiceInvocation<?>, List<Runnable>> collectedHandlers;
+
+        synchronized (handlers) {
+            if (handedOff) {
+                return;
+            }
+            handedOff = true;
+            collectedHandlers = new IdentityHashMap<>(handlers);
+        }
+
+        Platform.runLater(() -> {
+            for (ServiceInvocation<?> invocation : invocations) {
+                invocation.applyPendingUpdate();
+                collectedHandlers.get(invocation).forEach(this::run);
+            }
+
+            updateProgress();
+            running.set(false);
+
+            Results results = new Results(invocations);
+            value.set(results);
+
+            if (cancelled.get()) {
+                state.set(State.CANCELLED);
+                message.set("Cancelled");
+            } else if (results.isSuccessful()) {
+                state.set(State.SUCCEEDED);
+                message.set("All calls were successful");
+                if (onSuccess != null) {
+                    run(() -> onSuccess.accept(results));
+                }
+            } else {
+                state.set(State.FAILED);
+                message.set(results.getFailed().size() + " of " + invocations.size() + " calls were not successful");
+                results.getFailed().stream()
+                        .map(ServiceInvocation::getException)
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .ifPresent(exception::set);
+                if (onFailure != null) {
+                    run(() -> onFailure.accept(results));
+                }
+            }
+
+            if (onFinally != null) {
+                run(onFinally);
+            }
+
+            if (cancelled.get()) {
+                result.cancel(false);
+            } else {
+                result.complete(null);
+            }
+        });
+    }
+
+    private void run(Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (Exception e) {
+            LOG.log(Level.SEVERE, "error when invoking handler of service invocation group: " + getName(), e);
+        }
+    }
+
+    /*
+     * Passes the handlers of a member to the group.
+     */
+    private final class MemberHandOff implements ServiceInvocation.GroupHandOff {
+
+        private final ServiceInvocation<?> invocation;
+
+        private MemberHandOff(ServiceInvocation<?> invocation) {
+            this.invocation = invocation;
+        }
+
+        @Override
+        public void handOff(Runnable runnable) {
+            deferHandler(invocation, runnable);
+        }
+
+        @Override
+        public void finished(ServiceInvocation<?> invocation) {
+            memberFinished(invocation);
+        }
+    }
+
+    /**
+     * The results of the members of a group.
+     */
+    public static final class Results {
+
+        private final List<ServiceInvocation<?>> invocations;
+
+        private final List<Object> values;
+
+        private final List<ServiceInvocation<?>> failed;
+
+        private Results(List<ServiceInvocation<?>> invocations) {
+            this.invocations = invocations;
+
+            List<Object> values = new ArrayList<>(invocations.size());
+            List<ServiceInvocation<?>> failed = new ArrayList<>();
+
+            for (ServiceInvocation<?> invocation : invocations) {
+                values.add(invocation.getValue());
+                if (invocation.getState() != State.SUCCEEDED) {
+                    failed.add(invocation);
+                }
+            }
+
+            this.values = Collections.unmodifiableList(values);
+            this.failed = Collections.unmodifiableList(failed);
+        }
+
+        /**
+         * Returns the result object of the given member.
+         *
+         * @param invocation the member of the group
+         * @param <R>        the type of the result object
+         * @return the result object or null if the member was not successful
+         */
+        @SuppressWarnings("unchecked")
+        public <R> R get(ServiceInvocation<R> invocation) {
+            for (int i = 0; i < invocations.size(); i++) {
+                if (invocations.get(i) == invocation) {
+                    return (R) values.get(i);
+                }
+            }
+
+            throw new IllegalArgumentException("not a member of the group: " + invocation.getName());
+        }
+
+        /**
+         * Returns the result objects of all members, in the order of the members.
+         *
+         * @return the result objects, null for the members that were not successful
+         */
+        public List<Object> getValues() {
+            return values;
+        }
+
+        /**
+         * Returns the members that were not successful.
+         *
+         * @return the failed (or cancelled) members
+         */
+        public List<ServiceInvocation<?>> getFailed() {
+            return failed;
+        }
+
+        /**
+         * Determines whether all members were successful.
+         *
+         * @return true if all members were successful
+         */
+        public boolean isSuccessful() {
+            return failed.isEmpty();
+        }
+    }
+
+    // state
+
+    private final ReadOnlyObjectWrapper<State> state = new ReadOnlyObjectWrapper<>(this, "state", State.READY);
+
+    @Override
+    public State getState() {
+        return state.get();
+    }
+
+    @Override
+    public ReadOnlyObjectProperty<State> stateProperty() {
+        return state.getReadOnlyProperty();
+    }
+
+    // value
+
+    private final ReadOnlyObjectWrapper<Results> value = new ReadOnlyObjectWrapper<>(this, "value");
+
+    @Override
+    public Results getValue() {
+        return value.get();
+    }
+
+    @Override
+    public ReadOnlyObjectProperty<Results> valueProperty() {
+        return value.getReadOnlyProperty();
+    }
+
+    // exceptions
+
+    private final ReadOnlyObjectWrapper<Throwable> exception = new ReadOnlyObjectWrapper<>(this, "exception");
+
+    @Override
+    public Throwable getException() {
+        return exception.get();
+    }
+
+    @Override
+    public ReadOnlyObjectProperty<Throwable> exceptionProperty() {
+        return exception.getReadOnlyProperty();
+    }
+
+    // work done
+
+    private final ReadOnlyDoubleWrapper workDone = new ReadOnlyDoubleWrapper(this, "workDone");
+
+    @Override
+    public double getWorkDone() {
+        return workDone.get();
+    }
+
+    @Override
+    public ReadOnlyDoubleProperty workDoneProperty() {
+        return workDone.getReadOnlyProperty();
+    }
+
+    // total work
+
+    private final ReadOnlyDoubleWrapper totalWork = new ReadOnlyDoubleWrapper(this, "totalWork");
+
+    @Override
+    public double getTotalWork() {
+        return totalWork.get();
+    }
+
+    @Override
+    public ReadOnlyDoubleProperty totalWorkProperty() {
+        return totalWork.getReadOnlyProperty();
+    }
+
+    // progress
+
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(this, "progress");
+
+    @Override
+    public double getProgress() {
+        return progress.get();
+    }
+
+    @Override
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    // running
+
+    private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper(this, "running");
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public ReadOnlyBooleanProperty runningProperty() {
+        return running.getReadOnlyProperty();
+    }
+
+    // message
+
+    private final ReadOnlyStringWrapper message = new ReadOnlyStringWrapper(this, "message");
+
+    @Override
+    public String getMessage() {
+        return message.get();
+    }
+
+    @Override
+    public ReadOnlyStringProperty messageProperty() {
+        return message.getReadOnlyProperty();
+    }
+
+    // title
+
+    private final ReadOnlyStringWrapper title = new ReadOnlyStringWrapper(this, "title");
+
+    @Override
+    public String getTitle() {
+        return title.get();
+    }
+
+    @Override
+    public ReadOnlyStringProperty titleProperty() {
+        return title.getReadOnlyProperty();
+    }
+
+    // cancel
+
+    /**
+     * Cancels all members of the group. The handlers of the group will be invoked once all members
+     * have finished, the state of the group changes to {@link State#CANCELLED}.
+     *
+     * @return true if the group was cancelled, false if it was not running or had already been cancelled
+     */
+    @Override
+    public boolean cancel() {
+        if (result == null || result.isDone() || !cancelled.compareAndSet(false, true)) {
+            return false;
+        }
+
+        invocations.forEach(ServiceInvocation::cancel);
+        return true;
+    }
+}
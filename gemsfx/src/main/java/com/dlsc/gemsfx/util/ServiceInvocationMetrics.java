@@ -0,0 +1,440 @@
+package com.dlsc.gemsfx.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects timing information and counters for the {@link ServiceInvocation}s of an application, grouped
+ * by the names of the invocations. For each invocation three durations are measured:
+ * <ul>
+ *     <li>queue wait: the time between the execution of the invocation and the start of the service call,
+ *     e.g. because all threads of the executor were busy or because of a concurrency limit</li>
+ *     <li>server time: the time spent calling the service, including retries</li>
+ *     <li>hand-off time: the time between the response and the end of the last handler on the UI thread</li>
+ * </ul>
+ * This allows applications to find out whether a slow screen is caused by the backend, the thread pool,
+ * or the UI thread. Applications can export the numbers by {@link #addListener(Listener) registering a listener}
+ * that gets informed about every finished invocation. In addition, every invocation is recorded as a
+ * "com.dlsc.gemsfx.ServiceInvocation" event by the JDK Flight Recorder, if enabled. The "jdk.jfr" module
+ * is optional, modular applications have to add it (e.g. via "--add-modules jdk.jfr") to receive these events.
+ *
+ * @see ServiceInvocation#getMetrics()
+ */
+public final class ServiceInvocationMetrics {
+
+    private static final Logger LOG = Logger.getLogger(ServiceInvocationMetrics.class.getName());
+
+    /**
+     * The outcome of a service invocation.
+     */
+    public enum Outcome {
+
+        /**
+         * The service call was successful.
+         */
+        SUCCESS,
+
+        /**
+         * The service returned an unsuccessful response.
+         */
+        FAILURE,
+
+        /**
+         * The service call failed with an exception.
+         */
+        EXCEPTION,
+
+        /**
+         * The invocation was cancelled.
+         */
+        CANCELLED
+    }
+
+    private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    ServiceInvocationMetrics() {
+    }
+
+    /**
+     * Returns the statistics of the invocations with the given name.
+     *
+     * @param name the name of the invocations
+     * @return the statistics or null if no invocation with the given name has finished, yet
+     */
+    public Statistics getStatistics(String name) {
+        return statistics.get(name);
+    }
+
+    /**
+     * Returns the names of all invocations for which statistics are available.
+     *
+     * @return the invocation names
+     */
+    public Set<String> getNames() {
+        return Set.copyOf(statistics.keySet());
+    }
+
+    /**
+     * Removes all statistics.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * Adds a listener that will be informed about every finished invocation. The listener will be
+     * called on the thread that finished the invocation, which can be the UI thread, hence it should
+     * return quickly.
+     *
+     * @param listener the listener
+     */
+    public void addListener(Listener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener can not be null"));
+    }
+
+    /**
+     * Removes the given listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    void record(Sample sample) {
+        statistics.computeIfAbsent(sample.getName(), Statistics::new).record(sample);
+
+        for (Listener listener : listeners) {
+            try {
+                listener.invocationFinished(sample);
+            } catch (Exception ex) {
+                LOG.log(Level.SEVERE, "error in service invocation metrics listener", ex);
+            }
+        }
+    }
+
+    /**
+     * A listener that gets informed about every finished service invocation.
+     *
+     * @see #addListener(Listener)
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called when a service invocation has finished.
+         *
+         * @param sample the measurements of the invocation
+         */
+        void invocationFinished(Sample sample);
+    }
+
+    /**
+     * The measurements of a single service invocation.
+     */
+    public static final class Sample {
+
+        private final String name;
+        private final Outcome outcome;
+        private final int statusCode;
+        private final int attempts;
+        private final long queueWait;
+        private final long serverTime;
+        private final long handOffTime;
+
+        Sample(String name, Outcome outcome, int statusCode, int attempts, long queueWait, long serverTime, long handOffTime) {
+            this.name = name;
+            this.outcome = outcome;
+            this.statusCode = statusCode;
+            this.attempts = attempts;
+            this.queueWait = queueWait;
+            this.serverTime = serverTime;
+            this.handOffTime = handOffTime;
+        }
+
+        /**
+         * Returns the name of the invocation.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the outcome of the invocation.
+         *
+         * @return the outcome
+         */
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Returns the HTTP status code of the response.
+         *
+         * @return the status code or 0 if there was no response
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Returns the number of times the service was called, including retries.
+         *
+         * @return the number of attempts
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * Returns the time between the execution of the invocation and the start of the service call.
+         *
+         * @return the queue wait time
+         */
+        public Duration getQueueWait() {
+            return Duration.ofNanos(queueWait);
+        }
+
+        /**
+         * Returns the time spent calling the service.
+         *
+         * @return the server time
+         */
+        public Duration getServerTime() {
+            return Duration.ofNanos(serverTime);
+        }
+
+        /**
+         * Returns the time between the response and the end of the last handler on the UI thread.
+         *
+         * @return the hand-off time
+         */
+        public Duration getHandOffTime() {
+            return Duration.ofNanos(handOffTime);
+        }
+
+        @Override
+        public String toString() {
+            return "Sample{name='" + name + "', outcome=" + outcome + ", statusCode=" + statusCode + ", attempts=" + attempts
+                    + ", queueWait=" + getQueueWait().toMillis() + "ms, serverTime=" + getServerTime().toMillis()
+                    + "ms, handOffTime=" + getHandOffTime().toMillis() + "ms}";
+        }
+    }
+
+    /**
+     * The counters and histograms of all invocations with the same name.
+     */
+    public static final class Statistics {
+
+        private final String name;
+
+        private final LongAdder[] counters = new LongAdder[Outcome.values().length];
+
+        private final Histogram queueWait = new Histogram();
+
+        private final Histogram serverTime = new Histogram();
+
+        private final Histogram handOffTime = new Histogram();
+
+        private Statistics(String name) {
+            this.name = name;
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new LongAdder();
+            }
+        }
+
+        private void record(Sample sample) {
+            counters[sample.outcome.ordinal()].increment();
+
+            if (sample.outcome != Outcome.CANCELLED) {
+                queueWait.record(sample.queueWait);
+                serverTime.record(sample.serverTime);
+                handOffTime.record(sample.handOffTime);
+            }
+        }
+
+        /**
+         * Returns the name of the invocations.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of invocations with the given outcome.
+         *
+         * @param outcome the outcome
+         * @return the number of invocations
+         */
+        public long getCount(Outcome outcome) {
+            return counters[outcome.ordinal()].sum();
+        }
+
+        /**
+         * Returns the number of successful invocations.
+         *
+         * @return the number of successful invocations
+         */
+        public long getSuccessCount() {
+            return getCount(Outcome.SUCCESS);
+        }
+
+        /**
+         * Returns the number of invocations for which the service returned an unsuccessful response.
+         *
+         * @return the number of failed invocations
+         */
+        public long getFailureCount() {
+            return getCount(Outcome.FAILURE);
+        }
+
+        /**
+         * Returns the number of invocations that failed with an exception.
+         *
+         * @return the number of invocations with an exception
+         */
+        public long getExceptionCount() {
+            return getCount(Outcome.EXCEPTION);
+        }
+
+        /**
+         * Returns the histogram of the times between the execution of the invocations and the start
+         * of their service calls.
+         *
+         * @return the queue wait histogram
+         */
+        public Histogram getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         * Returns the histogram of the times spent calling the service.
+         *
+         * @return the server time histogram
+         */
+        public Histogram getServerTime() {
+            return serverTime;
+        }
+
+        /**
+         * Returns the histogram of the times between the responses and the ends of the last handlers
+         * on the UI thread.
+         *
+         * @return the hand-off time histogram
+         */
+        public Histogram getHandOffTime() {
+            return handOffTime;
+        }
+    }
+
+    /**
+     * A histogram of durations with exponentially growing buckets (1µs, 2µs, 4µs, ... up to about
+     * one hour). Percentiles are therefore approximations, accurate to a factor of two.
+     */
+    public static final class Histogram {
+
+        private static final int BUCKETS = 32;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder sum = new LongAdder();
+
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram() {
+        }
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            long micros = value / 1000;
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            sum.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        /**
+         * Returns the number of recorded durations.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Returns the average of the recorded durations.
+         *
+         * @return the mean duration or zero if no durations have been recorded
+         */
+        public Duration getMean() {
+            long count = getCount();
+            return count == 0 ? Duration.ZERO : Duration.ofNanos(sum.sum() / count);
+        }
+
+        /**
+         * Returns the longest recorded duration.
+         *
+         * @return the maximum duration
+         */
+        public Duration getMax() {
+            return Duration.ofNanos(max.get());
+        }
+
+        /**
+         * Returns the (approximate) duration below which the given percentage of the recorded durations
+         * fall, e.g. 0.99 for the 99th percentile.
+         *
+         * @param percentile the percentile between 0 and 1
+         * @return the duration or zero if no durations have been recorded
+         */
+        public Duration getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 1) {
+                throw new IllegalArgumentException("percentile must be between zero and one but was " + percentile);
+            }
+
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+
+            if (total == 0) {
+                return Duration.ZERO;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    // upper bound of the bucket, but never more than the maximum
+                    long upperBound = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) * 1000;
+                    return Duration.ofNanos(Math.min(upperBound, max.get()));
+                }
+            }
+
+            return getMax();
+        }
+    }
+}
@@ -1,18 +1,98 @@
 package com.dlsc.gemsfx.util;
 
 import javafx.beans.property.*;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.prefs.Preferences;
 
 /**
  * A manager for storing observable values in the user preferences.
+ * <p>
+ * By default, every change of a registered property gets written to the preferences right away.
+ * Properties that change frequently, e.g. the value of a slider or the position of a divider, can
+ * produce hundreds of writes per second this way. Setting a {@link #setFlushDelay(Duration) flush delay} makes the manager collect
+ * the changes and write them in batches on a background thread, either when no property has been
+ * changed for the given delay, or when the {@link #setMaxFlushInterval(Duration) max flush interval}
+ * has passed. Changes that have not been written, yet, will be written when the application shuts down
+ * or when {@link #flush()} gets called.
+ * <p>
+ * The values can also be persisted in a different {@link SessionStore}, e.g. a single
+ * {@link FileSessionStore file}. All values of the store will be read once, when the first property
+ * gets registered. Managers created with a store use a flush delay by default.
+ * <p>
+ * Lists and arbitrary objects can be persisted with the help of a {@link Codec}, which turns them into
+ * a compact binary representation. Values that exceed the maximum length supported by the preferences
+ * will be split into several entries.
  */
 public class SessionManager {
 
     private static final Logger LOG = Logger.getLogger(SessionManager.class.getSimpleName());
+
+    // values longer than this get split into several entries
+    private static final int MAX_CHUNK_LENGTH = Preferences.MAX_VALUE_LENGTH;
+
+    // not part of the Base64 alphabet
+    private static final String NULL_VALUE = "-";
+    private static final String CHUNKED_VALUE = "#";
+
+    private static final ScheduledExecutorService FLUSH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            ExecutorUtil.daemonThreadFactory("Session Manager Thread", Thread.MIN_PRIORITY));
+
+    private static final Duration DEFAULT_STORE_FLUSH_DELAY = Duration.ofMillis(500);
+
+    // managers with unsaved changes, written by the shutdown hook
+    private static final Set<SessionManager> DIRTY = ConcurrentHashMap.newKeySet();
+
+    static {
+        try {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> DIRTY.forEach(SessionManager::flushAndSync), "Session Manager Shutdown"));
+        } catch (SecurityException | IllegalStateException ex) {
+            LOG.log(Level.WARNING, "unable to register shutdown hook", ex);
+        }
+    }
+
     private final Preferences preferences;
+    private final SessionStore store;
+
+    private volatile Duration flushDelay;
+    private volatile Duration maxFlushInterval = Duration.ofSeconds(5);
+
+    // the values of the store, including the changes that have not been written, yet
+    private volatile Map<String, String> snapshot;
+
+    private final Object changesLock = new Object();
+
+    // guarded by changesLock, a null value marks a removal
+    private Map<String, String> changes = new HashMap<>();
+    private boolean flushScheduled;
+    private int batchDepth;
+    private long firstChange;
+    private long lastChange;
 
     /**
      * Constructs a new session manager that will use the passed in preferences.
@@ -21,17 +101,249 @@ public class SessionManager {
      */
     public SessionManager(Preferences preferences) {
         this.preferences = Objects.requireNonNull(preferences, "preferences can not be null");
+        this.store = new PreferencesSessionStore(preferences);
+        this.flushDelay = Duration.ZERO;
+    }
+
+    /**
+     * Constructs a new session manager that will use the passed in store. Stores like the
+     * {@link FileSessionStore} rewrite all values for every batch of changes, hence this
+     * manager uses a {@link #setFlushDelay(Duration) flush delay} of half a second by default.
+     *
+     * @param store the store used for persisting the property values
+     */
+    public SessionManager(SessionStore store) {
+        this.store = Objects.requireNonNull(store, "store can not be null");
+        this.flushDelay = DEFAULT_STORE_FLUSH_DELAY;
+        this.preferences = store instanceof PreferencesSessionStore preferencesStore ? preferencesStore.getPreferences() : null;
     }
 
     /**
      * Returns the preferences object used for persisting the property values.
      *
-     * @return the preferences
+     * @return the preferences or null if the manager uses a store that is not based on preferences
      */
     public final Preferences getPreferences() {
         return preferences;
     }
 
+    /**
+     * Returns the store used for persisting the property values.
+     *
+     * @return the store
+     */
+    public final SessionStore getStore() {
+        return store;
+    }
+
+    /**
+     * Sets the time that has to pass without any property changes before the changes get written
+     * to the store. Zero means that every change gets written right away on the thread that changed
+     * the property. This is the default for managers based on {@link Preferences}, managers created
+     * with a {@link SessionStore} use a delay of half a second by default.
+     *
+     * @param flushDelay the flush delay
+     */
+    public final void setFlushDelay(Duration flushDelay) {
+        Objects.requireNonNull(flushDelay, "flush delay can not be null");
+        if (flushDelay.isNegative()) {
+            throw new IllegalArgumentException("flush delay can not be negative: " + flushDelay);
+        }
+        this.flushDelay = flushDelay;
+    }
+
+    /**
+     * Returns the time that has to pass without any property changes before the changes get written
+     * to the store.
+     *
+     * @return the flush delay
+     */
+    public final Duration getFlushDelay() {
+        return flushDelay;
+    }
+
+    /**
+     * Sets the maximum time that changes will be kept in memory when properties keep changing,
+     * e.g. while the user drags a slider. The default is five seconds. Only used when a
+     * {@link #setFlushDelay(Duration) flush delay} has been set.
+     *
+     * @param maxFlushInterval the max flush interval
+     */
+    public final void setMaxFlushInterval(Duration maxFlushInterval) {
+        Objects.requireNonNull(maxFlushInterval, "max flush interval can not be null");
+        if (maxFlushInterval.isNegative()) {
+            throw new IllegalArgumentException("max flush interval can not be negative: " + maxFlushInterval);
+        }
+        this.maxFlushInterval = maxFlushInterval;
+    }
+
+    /**
+     * Returns the maximum time that changes will be kept in memory when properties keep changing.
+     *
+     * @return the max flush interval
+     */
+    public final Duration getMaxFlushInterval() {
+        return maxFlushInterval;
+    }
+
+    /**
+     * Writes all changes that have not been written, yet, to the store.
+     */
+    public final synchronized void flush() {
+        DIRTY.remove(this);
+
+        Map<String, String> batch;
+        synchronized (changesLock) {
+            if (changes.isEmpty()) {
+                return;
+            }
+            batch = changes;
+            changes = new HashMap<>();
+        }
+
+        Map<String, String> values = new HashMap<>();
+        Set<String> removals = new HashSet<>();
+        batch.forEach((path, value) -> {
+            if (value != null) {
+                values.put(path, value);
+            } else {
+                removals.add(path);
+            }
+        });
+
+        LOG.fine("writing " + batch.size() + " changes to session store");
+
+        try {
+            store.save(values, removals);
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(Level.SEVERE, "unable to write changes to session store", ex);
+        }
+    }
+
+    /*
+     * Used by the shutdown hook, the store might otherwise not persist the last changes before
+     * the application exits.
+     */
+    private void flushAndSync() {
+        flush();
+        try {
+            store.sync();
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(Level.SEVERE, "unable to sync session store", ex);
+        }
+    }
+
+    /*
+     * Returns the stored value for the given path. Reads the whole store the first time.
+     */
+    private String read(String path) {
+        Map<String, String> snapshot = this.snapshot;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = this.snapshot;
+                if (snapshot == null) {
+                    snapshot = new ConcurrentHashMap<>();
+                    try {
+                        snapshot.putAll(store.load());
+                    } catch (IOException | RuntimeException ex) {
+                        LOG.log(Level.SEVERE, "unable to read values from session store", ex);
+                    }
+                    this.snapshot = snapshot;
+                }
+            }
+        }
+        return snapshot.get(path);
+    }
+
+    private <V> V read(String path, V defaultValue, Function<String, V> parser) {
+        String value = read(path);
+        if (value != null) {
+            try {
+                return parser.apply(value);
+            } catch (IllegalArgumentException ex) {
+                LOG.warning("unable to parse stored value at path " + path + ": " + value);
+            }
+        }
+        return defaultValue;
+    }
+
+    /*
+     * Records the new value for the given path, null for removing it.
+     */
+    private void write(String path, String value) {
+        if (Objects.equals(snapshot.get(path), value)) {
+            return;
+        }
+
+        if (value != null) {
+            snapshot.put(path, value);
+        } else {
+            snapshot.remove(path);
+        }
+
+        Duration delay = flushDelay;
+
+        boolean schedule;
+        boolean flushNow;
+        synchronized (changesLock) {
+            long now = System.nanoTime();
+            if (changes.isEmpty()) {
+                firstChange = now;
+            }
+            lastChange = now;
+            changes.put(path, value);
+            schedule = !flushScheduled && !delay.isZero();
+            flushScheduled |= schedule;
+            flushNow = delay.isZero() && batchDepth == 0;
+        }
+
+        if (flushNow) {
+            flush();
+        } else if (!delay.isZero()) {
+            DIRTY.add(this);
+            if (schedule) {
+                FLUSH_EXECUTOR.schedule(this::flushIfDue, delay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /*
+     * Performs the given writes as a single batch, i.e. without a flush after each of them when
+     * there is no flush delay.
+     */
+    private void batch(Runnable writes) {
+        synchronized (changesLock) {
+            batchDepth++;
+        }
+
+        try {
+            writes.run();
+        } finally {
+            boolean flushNow;
+            synchronized (changesLock) {
+                flushNow = --batchDepth == 0 && flushDelay.isZero();
+            }
+
+            if (flushNow) {
+                flush();
+            }
+        }
+    }
+
+    private void flushIfDue() {
+        synchronized (changesLock) {
+            long now = System.nanoTime();
+            long remaining = Math.min(lastChange + flushDelay.toNanos(), firstChange + maxFlushInterval.toNanos()) - now;
+            if (remaining > 0 && !changes.isEmpty()) {
+                FLUSH_EXECUTOR.schedule(this::flushIfDue, remaining, TimeUnit.NANOSECONDS);
+                return;
+            }
+            flushScheduled = false;
+        }
+
+        flush();
+    }
+
     /**
      * Registers a double property so that any changes made to that property will be
      * persisted in the user's preferences and restored for the next client session.
@@ -42,12 +354,12 @@ public class SessionManager {
      */
     public void register(String path, DoubleProperty property) {
         LOG.fine("registering double property at path " + path);
-        property.set(preferences.getDouble(path, property.get()));
+        property.set(read(path, property.get(), Double::parseDouble));
         property.addListener((it, oldValue, newValue) -> {
             if (newValue != null) {
-                preferences.putDouble(path, newValue.doubleValue());
+                write(path, Double.toString(newValue.doubleValue()));
             } else {
-                preferences.remove(path);
+                write(path, null);
             }
         });
     }
@@ -62,12 +374,12 @@ public class SessionManager {
      */
     public void register(String path, IntegerProperty property) {
         LOG.fine("registering integer property at path " + path);
-        property.set(preferences.getInt(path, property.get()));
+        property.set(read(path, property.get(), Integer::parseInt));
         property.addListener((it, oldValue, newValue) -> {
             if (newValue != null) {
-                preferences.putInt(path, newValue.intValue());
+                write(path, Integer.toString(newValue.intValue()));
             } else {
-                preferences.remove(path);
+                write(path, null);
             }
         });
     }
@@ -82,12 +394,12 @@ public class SessionManager {
      */
     public void register(String path, FloatProperty property) {
         LOG.fine("registering float property at path " + path);
-        property.set(preferences.getFloat(path, property.get()));
+        property.set(read(path, property.get(), Float::parseFloat));
         property.addListener((it, oldValue, newValue) -> {
             if (newValue != null) {
-                preferences.putFloat(path, newValue.floatValue());
+                write(path, Float.toString(newValue.floatValue()));
             } else {
-                preferences.remove(path);
+                write(path, null);
             }
         });
     }
@@ -102,12 +414,12 @@ public class SessionManager {
      */
     public void register(String path, LongProperty property) {
         LOG.fine("registering long property at path " + path);
-        property.set(preferences.getLong(path, property.get()));
+        property.set(read(path, property.get(), Long::parseLong));
         property.addListener((it, oldValue, newValue) -> {
             if (newValue != null) {
-                preferences.putLong(path, newValue.longValue());
+                write(path, Long.toString(newValue.longValue()));
             } else {
-                preferences.remove(path);
+                write(path, null);
             }
         });
     }
@@ -122,12 +434,12 @@ public class SessionManager {
      */
     public void register(String path, BooleanProperty property) {
         LOG.fine("registering boolean property at path " + path);
-        property.set(preferences.getBoolean(path, property.get()));
+        property.set(read(path, property.get(), SessionManager::parseBoolean));
         property.addListener((it, oldValue, newValue) -> {
             if (newValue != null) {
-                preferences.putBoolean(path, newValue);
+                write(path, Boolean.toString(newValue));
             } else {
-                preferences.remove(path);
+                write(path, null);
             }
         });
     }
@@ -142,13 +454,416 @@ public class SessionManager {
      */
     public void register(String path, StringProperty property) {
         LOG.fine("registering string property at path " + path);
-        property.set(preferences.get(path, property.get()));
+        property.set(read(path, property.get(), Function.identity()));
+        property.addListener((it, oldValue, newValue) -> {
+            if (newValue != null) {
+                write(path, newValue);
+            } else {
+                write(path, null);
+            }
+        });
+    }
+
+    /**
+     * Registers an object property so that any changes made to that property will be
+     * persisted in the user's preferences and restored for the next client session. The
+     * given codec will be used for converting the value into its persistent form.
+     *
+     * @param path     the path to use for the property (e.g. "table.sort.order"). Paths must
+     *                 be unique for all persisted properties.
+     * @param property the property to persist and restore across user sessions
+     * @param codec    the codec used for writing and reading the value
+     * @param <T>      the type of the value
+     */
+    public <T> void register(String path, ObjectProperty<T> property, Codec<T> codec) {
+        LOG.fine("registering object property at path " + path);
+        Objects.requireNonNull(codec, "codec can not be null");
+
+        String stored = readBlob(path);
+        if (stored != null) {
+            try {
+                property.set(decode(stored, codec));
+            } catch (IOException | RuntimeException ex) {
+                LOG.log(Level.WARNING, "unable to decode stored value at path " + path, ex);
+            }
+        }
+
         property.addListener((it, oldValue, newValue) -> {
             if (newValue != null) {
-                preferences.put(path, newValue);
+                writeBlob(path, encode(newValue, codec));
             } else {
-                preferences.remove(path);
+                writeBlob(path, null);
             }
         });
     }
+
+    /**
+     * Registers an observable list so that any changes made to the list will be persisted in
+     * the user's preferences and restored for the next client session. Each element gets stored
+     * as a separate entry, so adding an element to the end of the list or replacing an element
+     * only writes the affected entries. The given codec will be used for converting the elements
+     * into their persistent form.
+     *
+     * @param path  the path to use for the list (e.g. "recent.searches"). Paths must
+     *              be unique for all persisted properties.
+     * @param list  the list to persist and restore across user sessions
+     * @param codec the codec used for writing and reading the elements
+     * @param <T>   the type of the elements
+     */
+    public <T> void register(String path, ObservableList<T> list, Codec<T> codec) {
+        LOG.fine("registering list at path " + path);
+        Objects.requireNonNull(codec, "codec can not be null");
+
+        int size = read(path, -1, Integer::parseInt);
+        if (size >= 0) {
+            try {
+                List<T> elements = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    String stored = readBlob(elementPath(path, i));
+                    elements.add(stored == null || stored.equals(NULL_VALUE) ? null : decode(stored, codec));
+                }
+                list.setAll(elements);
+            } catch (IOException | RuntimeException ex) {
+                LOG.log(Level.WARNING, "unable to decode stored list at path " + path, ex);
+            }
+        }
+
+        int[] storedSize = {size};
+
+        list.addListener((ListChangeListener<T>) change -> {
+            // all elements after the first changed one might have been moved
+            int from = list.size();
+            while (change.next()) {
+                from = Math.min(from, change.getFrom());
+            }
+
+            int firstChanged = from;
+            batch(() -> {
+                for (int i = firstChanged; i < list.size(); i++) {
+                    T element = list.get(i);
+                    writeBlob(elementPath(path, i), element == null ? NULL_VALUE : encode(element, codec));
+                }
+
+                for (int i = list.size(); i < storedSize[0]; i++) {
+                    writeBlob(elementPath(path, i), null);
+                }
+
+                storedSize[0] = list.size();
+                write(path, Integer.toString(list.size()));
+            });
+        });
+    }
+
+    private static String elementPath(String path, int index) {
+        return path + "[" + index + "]";
+    }
+
+    /*
+     * Reads a value that might have been split into several chunks.
+     */
+    private String readBlob(String path) {
+        String value = read(path);
+        if (value == null || !value.startsWith(CHUNKED_VALUE)) {
+            return value;
+        }
+
+        int chunks = Integer.parseInt(value.substring(CHUNKED_VALUE.length()));
+        StringBuilder sb = new StringBuilder(chunks * MAX_CHUNK_LENGTH);
+        for (int i = 0; i < chunks; i++) {
+            String chunk = read(path + CHUNKED_VALUE + i);
+            if (chunk == null) {
+                LOG.warning("chunk " + i + " of stored value at path " + path + " is missing");
+                return null;
+            }
+            sb.append(chunk);
+        }
+        return sb.toString();
+    }
+
+    /*
+     * Writes a value, splitting it into several chunks if it is too long. Null removes the value.
+     */
+    private void writeBlob(String path, String value) {
+        String old = read(path);
+        int oldChunks = old != null && old.startsWith(CHUNKED_VALUE) ? Integer.parseInt(old.substring(CHUNKED_VALUE.length())) : 0;
+
+        batch(() -> {
+            int chunks = 0;
+
+            if (value != null && value.length() > MAX_CHUNK_LENGTH) {
+                chunks = (value.length() + MAX_CHUNK_LENGTH - 1) / MAX_CHUNK_LENGTH;
+                for (int i = 0; i < chunks; i++) {
+                    write(path + CHUNKED_VALUE + i, value.substring(i * MAX_CHUNK_LENGTH, Math.min(value.length(), (i + 1) * MAX_CHUNK_LENGTH)));
+                }
+                write(path, CHUNKED_VALUE + chunks);
+            } else {
+                write(path, value);
+            }
+
+            for (int i = chunks; i < oldChunks; i++) {
+                write(path + CHUNKED_VALUE + i, null);
+            }
+        });
+    }
+
+    private static <T> String encode(T value, Codec<T> codec) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            codec.write(out, value);
+            out.flush();
+            return Base64.getEncoder().encodeToString(bytes.toByteArray());
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("unable to encode value: " + value, ex);
+        }
+    }
+
+    private static <T> T decode(String value, Codec<T> codec) throws IOException {
+        return codec.read(new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(value))));
+    }
+
+    /*
+     * Parses booleans like the Java preferences do, everything else is invalid.
+     */
+    private static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("not a boolean: " + value);
+    }
+
+    /**
+     * Converts values to and from the compact binary form used for persisting them. Codecs
+     * for common types can be obtained via the static factory methods, codecs for composite
+     * types can be written by combining them, e.g.:
+     * <pre>
+     *     Codec&lt;Column&gt; codec = new Codec&lt;&gt;() {
+     *         public void write(DataOutput out, Column column) throws IOException {
+     *             Codec.string().write(out, column.getId());
+     *             out.writeDouble(column.getWidth());
+     *         }
+     *
+     *         public Column read(DataInput in) throws IOException {
+     *             return new Column(Codec.string().read(in), in.readDouble());
+     *         }
+     *     };
+     * </pre>
+     *
+     * @param <T> the type of the values
+     */
+    public interface Codec<T> {
+
+        /**
+         * Writes the given value.
+         *
+         * @param out   the output
+         * @param value the value, never null
+         * @throws IOException if the value can not be written
+         */
+        void write(DataOutput out, T value) throws IOException;
+
+        /**
+         * Reads a value written by {@link #write(DataOutput, Object)}.
+         *
+         * @param in the input
+         * @return the value
+         * @throws IOException if the value can not be read
+         */
+        T read(DataInput in) throws IOException;
+
+        /**
+         * Returns a codec for strings. Null strings are supported.
+         *
+         * @return the string codec
+         */
+        static Codec<String> string() {
+            return Codecs.STRING;
+        }
+
+        /**
+         * Returns a codec for integers.
+         *
+         * @return the integer codec
+         */
+        static Codec<Integer> integer() {
+            return Codecs.INTEGER;
+        }
+
+        /**
+         * Returns a codec for longs.
+         *
+         * @return the long codec
+         */
+        static Codec<Long> longs() {
+            return Codecs.LONG;
+        }
+
+        /**
+         * Returns a codec for doubles.
+         *
+         * @return the double codec
+         */
+        static Codec<Double> doubles() {
+            return Codecs.DOUBLE;
+        }
+
+        /**
+         * Returns a codec for booleans.
+         *
+         * @return the boolean codec
+         */
+        static Codec<Boolean> booleans() {
+            return Codecs.BOOLEAN;
+        }
+
+        /**
+         * Returns a codec for the constants of the given enum. The constants are stored by name,
+         * so the order of the constants can be changed without affecting stored values.
+         *
+         * @param type the enum type
+         * @param <E>  the enum type
+         * @return the enum codec
+         */
+        static <E extends Enum<E>> Codec<E> enumeration(Class<E> type) {
+            Objects.requireNonNull(type, "type can not be null");
+            return of(Enum::name, name -> Enum.valueOf(type, name));
+        }
+
+        /**
+         * Returns a codec that stores values via their string representation.
+         *
+         * @param toString   the function converting a value into a string
+         * @param fromString the function converting a string back into a value
+         * @param <T>        the type of the values
+         * @return the codec
+         */
+        static <T> Codec<T> of(Function<T, String> toString, Function<String, T> fromString) {
+            Objects.requireNonNull(toString, "toString function can not be null");
+            Objects.requireNonNull(fromString, "fromString function can not be null");
+            return new Codec<>() {
+                @Override
+                public void write(DataOutput out, T value) throws IOException {
+                    string().write(out, toString.apply(value));
+                }
+
+                @Override
+                public T read(DataInput in) throws IOException {
+                    return fromString.apply(string().read(in));
+                }
+            };
+        }
+
+        /**
+         * Returns a codec for lists, e.g. for persisting an object property holding a list. The
+         * elements of the list must not be null.
+         *
+         * @param elementCodec the codec for the elements of the list
+         * @param <T>          the type of the elements
+         * @return the list codec
+         */
+        static <T> Codec<List<T>> list(Codec<T> elementCodec) {
+            Objects.requireNonNull(elementCodec, "element codec can not be null");
+            return new Codec<>() {
+                @Override
+                public void write(DataOutput out, List<T> list) throws IOException {
+                    out.writeInt(list.size());
+                    for (T element : list) {
+                        elementCodec.write(out, element);
+                    }
+                }
+
+                @Override
+                public List<T> read(DataInput in) throws IOException {
+                    int size = in.readInt();
+                    List<T> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(elementCodec.read(in));
+                    }
+                    return list;
+                }
+            };
+        }
+    }
+
+    /*
+     * The codecs returned by the factory methods of the codec interface.
+     */
+    private static final class Codecs {
+
+        private static final Codec<String> STRING = new Codec<>() {
+            @Override
+            public void write(DataOutput out, String value) throws IOException {
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    // unlike writeUTF() not limited to 64k
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                int length = in.readInt();
+                if (length < 0) {
+                    return null;
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+
+        private static final Codec<Integer> INTEGER = new Codec<>() {
+            @Override
+            public void write(DataOutput out, Integer value) throws IOException {
+                out.writeInt(value);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+
+        private static final Codec<Long> LONG = new Codec<>() {
+            @Override
+            public void write(DataOutput out, Long value) throws IOException {
+                out.writeLong(value);
+            }
+
+            @Override
+            public Long read(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        };
+
+        private static final Codec<Double> DOUBLE = new Codec<>() {
+            @Override
+            public void write(DataOutput out, Double value) throws IOException {
+                out.writeDouble(value);
+            }
+
+            @Override
+            public Double read(DataInput in) throws IOException {
+                return in.readDouble();
+            }
+        };
+
+        private static final Codec<Boolean> BOOLEAN = new Codec<>() {
+            @Override
+            public void write(DataOutput out, Boolean value) throws IOException {
+                out.writeBoolean(value);
+            }
+
+            @Override
+            public Boolean read(DataInput in) throws IOException {
+                return in.readBoolean();
+            }
+        };
+    }
 }
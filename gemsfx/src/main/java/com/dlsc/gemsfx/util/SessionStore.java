@@ -0,0 +1,45 @@
+package com.dlsc.gemsfx.util;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The backend used by a {@link SessionManager} for persisting the values of its properties. Values
+ * are stored as strings under the paths used for registering the properties. The manager reads all
+ * values once when the first property gets registered and afterwards only passes the changes to
+ * the store, possibly in batches.
+ *
+ * @see PreferencesSessionStore
+ * @see FileSessionStore
+ */
+public interface SessionStore {
+
+    /**
+     * Reads all values currently held by the store.
+     *
+     * @return the values, mapped by their paths
+     * @throws IOException if the values can not be read
+     */
+    Map<String, String> load() throws IOException;
+
+    /**
+     * Writes the given changes to the store.
+     *
+     * @param values   the new values, mapped by their paths
+     * @param removals the paths of the values that have to be removed
+     * @throws IOException if the values can not be written
+     */
+    void save(Map<String, String> values, Set<String> removals) throws IOException;
+
+    /**
+     * Makes sure that all values saved so far have been persisted. Called by the session manager
+     * after writing the remaining changes when the application shuts down. The default
+     * implementation does nothing, which is fine for stores that persist the values in
+     * {@link #save(Map, Set)} already.
+     *
+     * @throws IOException if the values can not be persisted
+     */
+    default void sync() throws IOException {
+    }
+}
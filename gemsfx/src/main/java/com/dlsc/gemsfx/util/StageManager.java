@@ -5,9 +5,21 @@ import javafx.beans.InvalidationListener;
 import javafx.geometry.Rectangle2D;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 
 /**
@@ -18,11 +30,31 @@ import java.util.prefs.Preferences;
  * becomes visible if the last used screen is no longer available. In that case the stage
  * will be shown centered on the primary screen with the specified min width and min
  * height.
+ * <p>
+ * Moving or resizing a stage changes its location and dimension many times per second. The
+ * manager therefore only keeps the latest values in memory and writes them to the preferences
+ * on a background thread once the stage has not been changed for a while (see {@link #setSaveDelay(Duration)}).
+ * Pending values will also be written (and the preferences flushed) when the stage gets hidden and when
+ * the application shuts down.
  */
 public class StageManager {
 
     private final Logger LOG = Logger.getLogger(StageManager.class.getSimpleName());
 
+    private static final ScheduledExecutorService SAVE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            ExecutorUtil.daemonThreadFactory("Stage Manager Thread", Thread.MIN_PRIORITY));
+
+    // managers with unsaved values, written by the shutdown hook
+    private static final Set<StageManager> DIRTY = ConcurrentHashMap.newKeySet();
+
+    static {
+        try {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> DIRTY.forEach(StageManager::flushAndSync), "Stage Manager Shutdown"));
+        } catch (SecurityException | IllegalStateException ex) {
+            Logger.getLogger(StageManager.class.getSimpleName()).log(Level.WARNING, "unable to register shutdown hook", ex);
+        }
+    }
+
     private final Stage stage;
     private final Preferences preferences;
 
@@ -31,6 +63,17 @@ public class StageManager {
 
     private boolean supportFullScreenAndMaximized;
 
+    private volatile Duration saveDelay = Duration.ofMillis(500);
+
+    private final AtomicReference<Geometry> pendingGeometry = new AtomicReference<>();
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+
+    private volatile long lastChange;
+    private long sequence;
+
+    // guarded by this
+    private Geometry savedGeometry;
+
     /**
      * Installs a new manager for the given stage. The location and dimension information will
      * be stored in the user preferences at the given path. The default values for the minimum
@@ -94,13 +137,7 @@ public class StageManager {
 
         restoreStage();
 
-        InvalidationListener stageListener = it -> {
-            try {
-                saveStage();
-            } catch (SecurityException ex) {
-                LOG.throwing(StageManager.class.getName(), "init", ex);
-            }
-        };
+        InvalidationListener stageListener = it -> stageChanged();
 
         stage.xProperty().addListener(stageListener);
         stage.yProperty().addListener(stageListener);
@@ -108,6 +145,11 @@ public class StageManager {
         stage.heightProperty().addListener(stageListener);
         stage.iconifiedProperty().addListener(stageListener);
         stage.maximizedProperty().addListener(stageListener);
+
+        stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, evt -> {
+            stageChanged();
+            flushAndSync();
+        });
     }
 
     public final void setSupportFullScreenAndMaximized(boolean supportFullScreenAndMaximized) {
@@ -118,23 +160,110 @@ public class StageManager {
         return supportFullScreenAndMaximized;
     }
 
-    private void saveStage() throws SecurityException {
-        if (supportFullScreenAndMaximized && stage.isMaximized()) {
-            LOG.fine(MessageFormat.format("saving stage, iconified = {0}, maximized = {1}, fullscreen = {2}", stage.isIconified(), stage.isMaximized(), stage.isFullScreen()));
+    /**
+     * Sets the time that the stage has to stay unchanged before its location and dimension
+     * will be written to the preferences. The default is 500 milliseconds.
+     *
+     * @param saveDelay the delay, zero for writing the values as soon as possible
+     */
+    public final void setSaveDelay(Duration saveDelay) {
+        Objects.requireNonNull(saveDelay, "save delay can not be null");
+        if (saveDelay.isNegative()) {
+            throw new IllegalArgumentException("save delay can not be negative: " + saveDelay);
+        }
+        this.saveDelay = saveDelay;
+    }
+
+    /**
+     * Returns the time that the stage has to stay unchanged before its location and dimension
+     * will be written to the preferences.
+     *
+     * @return the save delay
+     */
+    public final Duration getSaveDelay() {
+        return saveDelay;
+    }
+
+    /**
+     * Writes the latest location and dimension of the stage to the preferences right away
+     * if they have not been written, yet.
+     */
+    public final void flush() {
+        DIRTY.remove(this);
+        Geometry geometry = pendingGeometry.getAndSet(null);
+
+        if (geometry != null) {
+            try {
+                saveStage(geometry);
+            } catch (SecurityException ex) {
+                LOG.throwing(StageManager.class.getName(), "flush", ex);
+            }
+        }
+    }
+
+    /*
+     * Also flushes the preferences node. The preferences get saved by a shutdown hook of their
+     * own, which might run before the last values have been written by this manager.
+     */
+    private void flushAndSync() {
+        flush();
+        try {
+            preferences.flush();
+        } catch (BackingStoreException | IllegalStateException | SecurityException ex) {
+            LOG.log(Level.WARNING, "unable to flush preferences " + preferences.absolutePath(), ex);
+        }
+    }
+
+    /*
+     * Called on the UI thread for every change of the stage. Only records the values, the
+     * preferences will be written by the save executor when the stage has been idle long enough.
+     */
+    private void stageChanged() {
+        pendingGeometry.set(new Geometry(++sequence, stage, supportFullScreenAndMaximized));
+        lastChange = System.nanoTime();
+        DIRTY.add(this);
+
+        if (saveScheduled.compareAndSet(false, true)) {
+            SAVE_EXECUTOR.schedule(this::saveIfIdle, saveDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void saveIfIdle() {
+        long remaining = lastChange + saveDelay.toNanos() - System.nanoTime();
+        if (remaining > 0) {
+            // the stage has been changed again in the meantime
+            SAVE_EXECUTOR.schedule(this::saveIfIdle, remaining, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        saveScheduled.set(false);
+        flush();
+    }
+
+    private synchronized void saveStage(Geometry geometry) throws SecurityException {
+        if (savedGeometry != null && (geometry.sequence < savedGeometry.sequence || geometry.hasSameValues(savedGeometry))) {
+            // outdated or unchanged
+            return;
+        }
+
+        if (!geometry.saveBounds) {
+            LOG.fine(MessageFormat.format("saving stage, iconified = {0}, maximized = {1}, fullscreen = {2}", geometry.iconified, geometry.maximized, geometry.fullScreen));
         } else {
-            LOG.fine(MessageFormat.format("saving stage, x = {0}, y = {1}, width = {2}, height = {3}, iconified = {4}, maximized = {5}, fullscreen = {6}", stage.getX(), stage.getY(), stage.getWidth(), stage.getHeight(), stage.isIconified(), stage.isMaximized(), stage.isFullScreen()));
+            LOG.fine(MessageFormat.format("saving stage, x = {0}, y = {1}, width = {2}, height = {3}, iconified = {4}, maximized = {5}, fullscreen = {6}", geometry.x, geometry.y, geometry.width, geometry.height, geometry.iconified, geometry.maximized, geometry.fullScreen));
         }
 
-        if (!supportFullScreenAndMaximized || (!stage.isMaximized() && !stage.isFullScreen())) {
-            preferences.putDouble("x", stage.getX());
-            preferences.putDouble("y", stage.getY());
-            preferences.putDouble("width", stage.getWidth());
-            preferences.putDouble("height", stage.getHeight());
+        if (geometry.saveBounds) {
+            preferences.putDouble("x", geometry.x);
+            preferences.putDouble("y", geometry.y);
+            preferences.putDouble("width", geometry.width);
+            preferences.putDouble("height", geometry.height);
         }
 
-        preferences.putBoolean("iconified", stage.isIconified());
-        preferences.putBoolean("maximized", stage.isMaximized());
-        preferences.putBoolean("fullscreen", stage.isFullScreen());
+        preferences.putBoolean("iconified", geometry.iconified);
+        preferences.putBoolean("maximized", geometry.maximized);
+        preferences.putBoolean("fullscreen", geometry.fullScreen);
+
+        savedGeometry = geometry;
     }
 
     private void restoreStage() throws SecurityException {
@@ -211,4 +340,38 @@ public class StageManager {
         stage.setWidth(minWidth);
         stage.setHeight(minHeight);
     }
+
+    /*
+     * The location and dimension of the stage at a given point in time.
+     */
+    private static final class Geometry {
+
+        private final long sequence;
+        private final double x;
+        private final double y;
+        private final double width;
+        private final double height;
+        private final boolean iconified;
+        private final boolean maximized;
+        private final boolean fullScreen;
+        private final boolean saveBounds;
+
+        private Geometry(long sequence, Stage stage, boolean supportFullScreenAndMaximized) {
+            this.sequence = sequence;
+            this.x = stage.getX();
+            this.y = stage.getY();
+            this.width = stage.getWidth();
+            this.height = stage.getHeight();
+            this.iconified = stage.isIconified();
+            this.maximized = stage.isMaximized();
+            this.fullScreen = stage.isFullScreen();
+            this.saveBounds = !supportFullScreenAndMaximized || (!maximized && !fullScreen);
+        }
+
+        private boolean hasSameValues(Geometry other) {
+            return x == other.x && y == other.y && width == other.width && height == other.height
+                    && iconified == other.iconified && maximized == other.maximized && fullScreen == other.fullScreen
+                    && saveBounds == other.saveBounds;
+        }
+    }
 }
@@ -14,6 +14,7 @@ open module com.dlsc.gemsfx {
 
     requires java.logging;
     requires java.prefs;
+    requires static jdk.jfr;
 
     requires commons.validator;
     requires net.synedra.validatorfx;
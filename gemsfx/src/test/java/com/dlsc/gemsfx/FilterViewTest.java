@@ -0,0 +1,233 @@
+package com.dlsc.gemsfx;
+
+import com.dlsc.gemsfx.FilterView.Filter;
+import com.dlsc.gemsfx.FilterView.FilterGroup;
+import com.dlsc.gemsfx.util.FxToolkitSupport;
+import javafx.application.Platform;
+import javafx.beans.Observable;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FilterViewTest {
+
+    private static boolean toolkitAvailable;
+
+    // the number of times the filters and the text filter have been tested
+    private final AtomicInteger tests = new AtomicInteger();
+
+    private final FilterGroup<IntegerProperty> modGroup = new FilterGroup<>("Mod");
+
+    private final FilterGroup<IntegerProperty> rangeGroup = new FilterGroup<>("Range");
+
+    private final Filter<IntegerProperty> even = filter("Even", i -> i % 2 == 0);
+
+    private final Filter<IntegerProperty> byThree = filter("By Three", i -> i % 3 == 0);
+
+    private final Filter<IntegerProperty> small = filter("Small", i -> i < 500);
+
+    private final Filter<IntegerProperty> large = filter("Large", i -> i > 800);
+
+    private FilterView<IntegerProperty> view;
+
+    @BeforeClass
+    public static void startToolkit() {
+        toolkitAvailable = FxToolkitSupport.startToolkit();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue("JavaFX toolkit not available", toolkitAvailable);
+
+        modGroup.getFilters().setAll(List.of(even, byThree));
+        rangeGroup.getFilters().setAll(List.of(small, large));
+
+        view = onFxThread(() -> {
+            // the extractor turns changes of the values into update changes of the list
+            ObservableList<IntegerProperty> items = FXCollections.observableArrayList(item -> new Observable[]{item});
+            for (int i = 0; i < 1000; i++) {
+                items.add(new SimpleIntegerProperty(i));
+            }
+
+            FilterView<IntegerProperty> filterView = new FilterView<>();
+            filterView.setItems(items);
+            filterView.getFilterGroups().setAll(List.of(modGroup, rangeGroup));
+            filterView.setTextFilterProvider(text -> item -> {
+                tests.incrementAndGet();
+                return Integer.toString(item.get()).contains(text);
+            });
+
+            // runs the evaluations right away, their results get applied by the next pulse
+            filterView.setExecutor(Runnable::run);
+            return filterView;
+        });
+    }
+
+    @Test
+    public void shouldFilterInBackground() throws Exception {
+        // given
+        ObservableList<IntegerProperty> filteredItems = onFxThread(() -> view.filteredItemsProperty().get());
+
+        // when
+        onFxThread(() -> view.getFilters().setAll(List.of(even, small)));
+
+        // then
+        assertFalse(onFxThread(view::isFiltering));
+        assertSame(filteredItems, onFxThread(() -> view.filteredItemsProperty().get()));
+        assertEquals(expectedItems(), onFxThread(() -> values(view.getFilteredItems())));
+        assertEquals(250, (int) onFxThread(() -> view.getFilteredItems().size()));
+    }
+
+    @Test
+    public void shouldFilterOnFxThreadAfterRemovingExecutor() throws Exception {
+        // given
+        onFxThread(() -> view.setExecutor(null));
+
+        // an evaluation that never finishes
+        onFxThread(() -> {
+            view.setExecutor(task -> {
+            });
+            view.setExecutor(null);
+        });
+
+        // when
+        onFxThread(() -> view.getFilters().setAll(List.of(even)));
+
+        // then
+        assertEquals(500, (int) onFxThread(() -> view.getFilteredItems().size()));
+        assertEquals(expectedItems(), onFxThread(() -> values(view.getFilteredItems())));
+    }
+
+    @Test
+    public void shouldKeepCachedFilterResultsInLineWithItems() throws Exception {
+        // given
+        onFxThread(() -> {
+            view.setShowFilterCounts(true);
+            view.getFilters().setAll(List.of(even, byThree, small));
+        });
+        onFxThread(() -> view.getFilters().add(large));
+
+        // when
+        onFxThread(() -> {
+            ObservableList<IntegerProperty> items = view.getItems();
+            items.add(400, new SimpleIntegerProperty(3));
+            items.add(401, new SimpleIntegerProperty(7));
+            items.remove(100, 150);
+            items.get(10).set(901);
+            items.get(600).set(5);
+        });
+
+        tests.set(0);
+        onFxThread(() -> view.getFilters().remove(large));
+
+        // then
+        assertEquals("the cached results have been used", 0, tests.get());
+        assertEquals(expectedItems(), onFxThread(() -> values(view.getFilteredItems())));
+        assertCounts();
+    }
+
+    @Test
+    public void shouldRefineTextFilterIncrementally() throws Exception {
+        // given
+        onFxThread(() -> view.getFilters().setAll(List.of(even)));
+        onFxThread(() -> view.setFilterText("1"));
+        int firstResult = onFxThread(() -> view.getFilteredItems().size());
+
+        // when
+        tests.set(0);
+        onFxThread(() -> view.setFilterText("12"));
+
+        // then
+        assertEquals("only the previous result has been tested", firstResult, tests.get());
+        assertTrue(firstResult < 1000);
+        assertEquals(expectedItems(), onFxThread(() -> values(view.getFilteredItems())));
+    }
+
+    private void assertCounts() throws Exception {
+        onFxThread(() -> {
+            for (FilterGroup<IntegerProperty> group : List.of(modGroup, rangeGroup)) {
+                FilterGroup<IntegerProperty> other = group == modGroup ? rangeGroup : modGroup;
+                List<Filter<IntegerProperty>> selected = new ArrayList<>(other.getFilters());
+                selected.retainAll(view.getFilters());
+
+                for (Filter<IntegerProperty> filter : group.getFilters()) {
+                    long expected = view.getItems().stream()
+                            .filter(filter)
+                            .filter(item -> selected.isEmpty() || selected.stream().anyMatch(it -> it.test(item)))
+                            .count();
+                    assertEquals(filter.getName(), expected, (long) view.getFilterCounts().get(filter));
+                }
+            }
+        });
+    }
+
+    private List<Integer> expectedItems() throws Exception {
+        return onFxThread(() -> {
+            Predicate<IntegerProperty> predicate = view.getFilterPredicate();
+            return values(view.getItems().filtered(predicate));
+        });
+    }
+
+    private static List<Integer> values(List<IntegerProperty> items) {
+        return items.stream().map(IntegerProperty::get).toList();
+    }
+
+    private Filter<IntegerProperty> filter(String name, IntPredicate predicate) {
+        return new Filter<>(name) {
+            @Override
+            public boolean test(IntegerProperty item) {
+                tests.incrementAndGet();
+                return predicate.test(item.get());
+            }
+        };
+    }
+
+    private static void onFxThread(Runnable runnable) throws Exception {
+        onFxThread(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /*
+     * Runs the given code on the FX thread and waits for it, including the results of the
+     * evaluations that were posted before.
+     */
+    private static <V> V onFxThread(Callable<V> callable) throws Exception {
+        CompletableFuture<V> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(callable.call());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        V value = result.get(5, TimeUnit.SECONDS);
+
+        // the results of the evaluations started by the given code
+        CompletableFuture<Void> applied = new CompletableFuture<>();
+        Platform.runLater(() -> applied.complete(null));
+        applied.get(5, TimeUnit.SECONDS);
+
+        return value;
+    }
+}
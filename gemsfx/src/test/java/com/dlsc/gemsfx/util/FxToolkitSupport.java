@@ -0,0 +1,39 @@
+package com.dlsc.gemsfx.util;
+
+import javafx.application.Platform;
+
+/**
+ * Starts the JavaFX toolkit once for all tests that need it. The outcome of the first attempt
+ * is remembered, a failed start (e.g. no display available) can not be retried and would leave
+ * {@link Platform#runLater(Runnable)} blocked forever.
+ */
+public final class FxToolkitSupport {
+
+    private static Boolean available;
+
+    private FxToolkitSupport() {
+    }
+
+    /**
+     * Starts the toolkit unless this has been tried before.
+     *
+     * @return true if the toolkit is running
+     */
+    public static synchronized boolean startToolkit() {
+        if (available == null) {
+            try {
+                Platform.startup(() -> {
+                });
+                available = true;
+            } catch (IllegalStateException ex) {
+                // already started by someone else
+                available = true;
+            } catch (RuntimeException | Error ex) {
+                // e.g. no display available
+                available = false;
+            }
+        }
+
+        return available;
+    }
+}
@@ -0,0 +1,135 @@
+package com.dlsc.gemsfx.util;
+
+import com.dlsc.gemsfx.SearchField.SearchFieldSuggestionRequest;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.util.StringConverter;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedSuggestionProviderTest {
+
+    private static final StringConverter<String> CONVERTER = new StringConverter<>() {
+        @Override
+        public String toString(String text) {
+            return text;
+        }
+
+        @Override
+        public String fromString(String text) {
+            return text;
+        }
+    };
+
+    @Test
+    public void shouldFindByPrefix() {
+        // given
+        IndexedSuggestionProvider<String> provider = new IndexedSuggestionProvider<>(List.of("Berlin", "Bern", "Hamburg", "New York"), CONVERTER);
+
+        // when
+        List<String> result = provider.find("ber", 10);
+
+        // then
+        assertEquals(List.of("Berlin", "Bern"), result);
+    }
+
+    @Test
+    public void shouldFindByTokenIfEnabled() {
+        // given
+        IndexedSuggestionProvider<String> provider = new IndexedSuggestionProvider<>(List.of("New York", "York", "Yorkshire"), CONVERTER, true);
+
+        // when
+        List<String> result = provider.find("york", 10);
+
+        // then
+        assertEquals(List.of("York", "Yorkshire", "New York"), result);
+    }
+
+    @Test
+    public void shouldStopAtLimit() {
+        // given
+        IndexedSuggestionProvider<String> provider = new IndexedSuggestionProvider<>(List.of("a1", "a2", "a3", "a4"), CONVERTER);
+
+        // when
+        List<String> result = provider.find("a", 2);
+
+        // then
+        assertEquals(List.of("a1", "a2"), result);
+    }
+
+    @Test
+    public void shouldUpdateIndexWhenListChanges() {
+        // given
+        ObservableList<String> items = FXCollections.observableArrayList("Berlin", "Hamburg");
+        IndexedSuggestionProvider<String> provider = new IndexedSuggestionProvider<>(items, CONVERTER);
+
+        // when
+        items.add("Bern");
+        items.remove("Berlin");
+
+        // then
+        assertEquals(List.of("Bern"), provider.find("ber", 10));
+        assertEquals(2, provider.size());
+        assertTrue(provider.find("berlin", 10).isEmpty());
+    }
+
+    @Test
+    public void shouldKeepItemContainedSeveralTimes() {
+        // given
+        String berlin = "Berlin";
+        ObservableList<String> items = FXCollections.observableArrayList(berlin, "Hamburg", berlin);
+        IndexedSuggestionProvider<String> provider = new IndexedSuggestionProvider<>(items, CONVERTER);
+
+        // when
+        items.remove(0);
+
+        // then
+        assertEquals(List.of(berlin), provider.find("ber", 10));
+
+        items.remove(berlin);
+        assertTrue(provider.find("ber", 10).isEmpty());
+    }
+
+    @Test
+    public void shouldReportTruncatedResults() {
+        // given
+        IndexedSuggestionProvider<String> provider = new IndexedSuggestionProvider<>(List.of("a1", "a2", "a3", "b1"), CONVERTER);
+        provider.setResultLimit(2);
+
+        AtomicBoolean truncatedA = new AtomicBoolean();
+        AtomicBoolean truncatedB = new AtomicBoolean();
+
+        // when
+        provider.call(request("a", truncatedA));
+        provider.call(request("b", truncatedB));
+
+        // then
+        assertTrue(truncatedA.get());
+        assertFalse(truncatedB.get());
+    }
+
+    private static SearchFieldSuggestionRequest request(String text, AtomicBoolean truncated) {
+        return new SearchFieldSuggestionRequest() {
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+
+            @Override
+            public String getUserText() {
+                return text;
+            }
+
+            @Override
+            public void markTruncated() {
+                truncated.set(true);
+            }
+        };
+    }
+}
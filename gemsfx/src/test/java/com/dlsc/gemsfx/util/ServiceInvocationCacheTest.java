@@ -0,0 +1,117 @@
+package com.dlsc.gemsfx.util;
+
+import com.dlsc.gemsfx.util.ServiceInvocationCache.Freshness;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+import retrofit2.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ServiceInvocationCacheTest {
+
+    private final AtomicLong time = new AtomicLong();
+
+    @Test
+    public void shouldDetermineFreshness() {
+        // given
+        ServiceInvocationCache cache = new ServiceInvocationCache(10, time::get);
+        cache.put("key", Response.success("value"));
+        ServiceInvocationCache.Entry entry = cache.get("key");
+
+        // when
+        time.set(Duration.ofSeconds(5).toNanos());
+        Freshness fresh = cache.getFreshness(entry, Duration.ofSeconds(10), Duration.ofSeconds(20));
+
+        time.set(Duration.ofSeconds(15).toNanos());
+        Freshness stale = cache.getFreshness(entry, Duration.ofSeconds(10), Duration.ofSeconds(20));
+
+        time.set(Duration.ofSeconds(35).toNanos());
+        Freshness expired = cache.getFreshness(entry, Duration.ofSeconds(10), Duration.ofSeconds(20));
+
+        // then
+        assertEquals(Freshness.FRESH, fresh);
+        assertEquals(Freshness.STALE, stale);
+        assertEquals(Freshness.EXPIRED, expired);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        // given
+        ServiceInvocationCache cache = new ServiceInvocationCache(2, time::get);
+        cache.put("a", Response.success("a"));
+        cache.put("b", Response.success("b"));
+
+        // when
+        cache.get("a");
+        cache.put("c", Response.success("c"));
+
+        // then
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void shouldKeepEntityTagWhenRevalidated() {
+        // given
+        ServiceInvocationCache cache = new ServiceInvocationCache(10, time::get);
+        cache.put("key", Response.success("value", Headers.of("ETag", "\"v1\"")));
+        ServiceInvocationCache.Entry entry = cache.get("key");
+
+        // when
+        time.set(Duration.ofSeconds(30).toNanos());
+        cache.revalidated("key", entry);
+
+        // then
+        ServiceInvocationCache.Entry revalidated = cache.get("key");
+        assertEquals("\"v1\"", revalidated.getETag());
+        assertEquals(Freshness.FRESH, cache.getFreshness(revalidated, Duration.ofSeconds(10), Duration.ZERO));
+    }
+
+    @Test
+    public void shouldSendEntityTagOfExpiredResponse() throws IOException {
+        // given
+        List<String> sentTags = new ArrayList<>();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(ServiceInvocationCache.conditionalRequestInterceptor())
+                .addInterceptor(chain -> {
+                    sentTags.add(chain.request().header("If-None-Match"));
+                    return new okhttp3.Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(304)
+                            .message("Not Modified")
+                            .body(ResponseBody.create(null, ""))
+                            .build();
+                })
+                .build();
+
+        Request request = new Request.Builder().url("http://localhost/data").build();
+
+        // when
+        ServiceInvocationCache.setIfNoneMatch("\"v1\"");
+        try {
+            client.newCall(request).execute().close();
+        } finally {
+            ServiceInvocationCache.setIfNoneMatch(null);
+        }
+        client.newCall(request).execute().close();
+
+        // then
+        assertEquals("\"v1\"", sentTags.get(0));
+        assertNull(sentTags.get(1));
+    }
+}
@@ -0,0 +1,66 @@
+package com.dlsc.gemsfx.util;
+
+import com.dlsc.gemsfx.util.ServiceInvocationMetrics.Outcome;
+import com.dlsc.gemsfx.util.ServiceInvocationMetrics.Sample;
+import com.dlsc.gemsfx.util.ServiceInvocationMetrics.Statistics;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ServiceInvocationMetricsTest {
+
+    @Test
+    public void shouldAggregateSamplesByName() {
+        // given
+        ServiceInvocationMetrics metrics = new ServiceInvocationMetrics();
+        List<Sample> samples = new ArrayList<>();
+        metrics.addListener(samples::add);
+
+        // when
+        for (int i = 1; i <= 100; i++) {
+            metrics.record(sample("load", Outcome.SUCCESS, Duration.ofMillis(i)));
+        }
+        metrics.record(sample("load", Outcome.FAILURE, Duration.ofMillis(50)));
+        metrics.record(sample("load", Outcome.CANCELLED, Duration.ofMillis(5000)));
+        metrics.record(sample("save", Outcome.EXCEPTION, Duration.ofMillis(10)));
+
+        // then
+        Statistics statistics = metrics.getStatistics("load");
+        assertEquals(100, statistics.getSuccessCount());
+        assertEquals(1, statistics.getFailureCount());
+        assertEquals(1, statistics.getCount(Outcome.CANCELLED));
+        assertEquals(1, metrics.getStatistics("save").getExceptionCount());
+        assertEquals(103, samples.size());
+
+        // cancelled invocations are not part of the histograms
+        assertEquals(101, statistics.getServerTime().getCount());
+        assertEquals(Duration.ofMillis(100), statistics.getServerTime().getMax());
+    }
+
+    @Test
+    public void shouldApproximatePercentiles() {
+        // given
+        ServiceInvocationMetrics metrics = new ServiceInvocationMetrics();
+
+        // when
+        for (int i = 1; i <= 100; i++) {
+            metrics.record(sample("load", Outcome.SUCCESS, Duration.ofMillis(i)));
+        }
+
+        // then
+        ServiceInvocationMetrics.Histogram histogram = metrics.getStatistics("load").getServerTime();
+        Duration median = histogram.getPercentile(0.5);
+        assertTrue(median.compareTo(Duration.ofMillis(50)) >= 0 && median.compareTo(Duration.ofMillis(100)) <= 0);
+        assertEquals(Duration.ofMillis(100), histogram.getPercentile(1));
+        assertEquals(Duration.ofNanos(Duration.ofMillis(101).toNanos() / 2), histogram.getMean());
+    }
+
+    private static Sample sample(String name, Outcome outcome, Duration serverTime) {
+        return new Sample(name, outcome, 200, 1, 0, serverTime.toNanos(), 0);
+    }
+}
@@ -0,0 +1,135 @@
+package com.dlsc.gemsfx.util;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.ResponseBody;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ServiceInvocationTest {
+
+    private static boolean toolkitAvailable;
+
+    // the entity tags sent by the client, null if none was sent
+    private final List<String> sentTags = new CopyOnWriteArrayList<>();
+
+    private TestService service;
+
+    @BeforeClass
+    public static void startToolkit() {
+        toolkitAvailable = FxToolkitSupport.startToolkit();
+    }
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("JavaFX toolkit not available", toolkitAvailable);
+
+        // a "server" that always returns version "v1" of the data
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(ServiceInvocationCache.conditionalRequestInterceptor())
+                .addInterceptor(chain -> {
+                    String tag = chain.request().header("If-None-Match");
+                    sentTags.add(tag == null ? "" : tag);
+
+                    okhttp3.Response.Builder response = new okhttp3.Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .header("ETag", "\"v1\"");
+
+                    if ("\"v1\"".equals(tag)) {
+                        return response.code(304).message("Not Modified").body(ResponseBody.create(null, "")).build();
+                    }
+
+                    return response.code(200).message("OK").body(ResponseBody.create(MediaType.parse("text/plain"), "data")).build();
+                })
+                .build();
+
+        service = new Retrofit.Builder()
+                .baseUrl("http://localhost/")
+                .client(client)
+                .build()
+                .create(TestService.class);
+    }
+
+    @After
+    public void tearDown() {
+        ServiceInvocation.getCache().clear();
+    }
+
+    @Test
+    public void shouldRevalidateExpiredResponse() throws Exception {
+        // given
+        List<Response<ResponseBody>> responses = new CopyOnWriteArrayList<>();
+
+        ServiceInvocation.createCall("test", () -> service.getData())
+                .withCaching("test.expired", Duration.ZERO, Duration.ZERO)
+                .onSuccessDetailed(responses::add)
+                .execute()
+                .get(5, TimeUnit.SECONDS);
+
+        // when
+        ServiceInvocation.createCall("test", () -> service.getData())
+                .withCaching("test.expired", Duration.ZERO, Duration.ZERO)
+                .onSuccessDetailed(responses::add)
+                .execute()
+                .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(List.of("", "\"v1\""), sentTags);
+        assertEquals(2, responses.size());
+        assertSame(responses.get(0), responses.get(1));
+    }
+
+    @Test
+    public void shouldRevalidateStaleResponseInBackground() throws Exception {
+        // given
+        List<Response<ResponseBody>> responses = new CopyOnWriteArrayList<>();
+
+        ServiceInvocation.createCall("test", () -> service.getData())
+                .withCaching("test.stale", Duration.ZERO, Duration.ofHours(1))
+                .onSuccessDetailed(responses::add)
+                .execute()
+                .get(5, TimeUnit.SECONDS);
+
+        // when
+        ServiceInvocation.createCall("test", () -> service.getData())
+                .withCaching("test.stale", Duration.ZERO, Duration.ofHours(1))
+                .onSuccessDetailed(responses::add)
+                .execute()
+                .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(2, responses.size());
+        assertSame(responses.get(0), responses.get(1));
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (sentTags.size() < 2 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+
+        // the stale response was used right away and confirmed afterwards
+        assertEquals(List.of("", "\"v1\""), sentTags);
+    }
+
+    interface TestService {
+
+        @GET("data")
+        Call<ResponseBody> getData();
+    }
+}
@@ -5,21 +5,42 @@ import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.FloatProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.LongProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleFloatProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Rule;
 import org.junit.Test;
-
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.prefs.Preferences;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class SessionManagerTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void shouldRestoreInteger() {
         // given
@@ -139,4 +160,161 @@ public class SessionManagerTest {
         // then
         assertEquals(value, newFlagProperty.get());
     }
+
+    @Test
+    public void shouldWriteChangesInBatches() {
+        // given
+        RecordingStore store = new RecordingStore();
+        SessionManager sessionManager = new SessionManager(store);
+        sessionManager.setFlushDelay(Duration.ofHours(1));
+
+        DoubleProperty dividerProperty = new SimpleDoubleProperty();
+        StringProperty nameProperty = new SimpleStringProperty("name");
+        sessionManager.register("test.divider", dividerProperty);
+        sessionManager.register("test.name", nameProperty);
+
+        // when
+        for (int i = 1; i <= 100; i++) {
+            dividerProperty.set(i / 100d);
+        }
+        nameProperty.set(null);
+
+        // then
+        assertEquals(0, store.batches.size());
+
+        sessionManager.flush();
+
+        assertEquals(1, store.batches.size());
+        assertEquals("1.0", store.values.get("test.divider"));
+        assertFalse(store.values.containsKey("test.name"));
+    }
+
+    @Test
+    public void shouldRestoreFromFile() {
+        // given
+        Path file = folder.getRoot().toPath().resolve("session.properties");
+
+        SessionManager sessionManager = new SessionManager(new FileSessionStore(file));
+        StringProperty textProperty = new SimpleStringProperty();
+        IntegerProperty countProperty = new SimpleIntegerProperty();
+        sessionManager.register("test.text", textProperty);
+        sessionManager.register("test.count", countProperty);
+        textProperty.set(" key = value: #1\n");
+        countProperty.set(42);
+        sessionManager.flush();
+
+        SessionManager newManager = new SessionManager(new FileSessionStore(file));
+        StringProperty newTextProperty = new SimpleStringProperty();
+        IntegerProperty newCountProperty = new SimpleIntegerProperty();
+
+        // when
+        newManager.register("test.text", newTextProperty);
+        newManager.register("test.count", newCountProperty);
+
+        // then
+        assertEquals(" key = value: #1\n", newTextProperty.get());
+        assertEquals(42, newCountProperty.get());
+    }
+
+    @Test
+    public void shouldWriteFileAfterFlushDelay() throws Exception {
+        // given
+        Path file = folder.getRoot().toPath().resolve("session.properties");
+
+        SessionManager sessionManager = new SessionManager(new FileSessionStore(file));
+        sessionManager.setFlushDelay(Duration.ofMillis(100));
+
+        DoubleProperty sliderProperty = new SimpleDoubleProperty();
+        sessionManager.register("test.slider", sliderProperty);
+
+        // when
+        for (int i = 1; i <= 1000; i++) {
+            sliderProperty.set(i);
+        }
+
+        // then
+        assertFalse(Files.exists(file));
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!Files.exists(file) && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Map.of("test.slider", "1000.0"), new FileSessionStore(file).load());
+    }
+
+    @Test
+    public void shouldRestoreList() {
+        // given
+        RecordingStore store = new RecordingStore();
+        SessionManager sessionManager = new SessionManager(store);
+        sessionManager.setFlushDelay(Duration.ZERO);
+
+        ObservableList<String> searches = FXCollections.observableArrayList();
+        sessionManager.register("test.list", searches, SessionManager.Codec.string());
+        searches.addAll("a", "b", "c", "d");
+
+        // when
+        store.batches.clear();
+        searches.add("e");
+        int appendBatches = store.batches.size();
+
+        searches.remove(1, 3);
+
+        SessionManager newManager = new SessionManager(store);
+        ObservableList<String> newSearches = FXCollections.observableArrayList();
+        newManager.register("test.list", newSearches, SessionManager.Codec.string());
+
+        // then
+        assertEquals(1, appendBatches); // the new element and the size
+        assertEquals(List.of("a", "d", "e"), newSearches);
+        assertNull(store.values.get("test.list[3]"));
+    }
+
+    @Test
+    public void shouldRestoreLargeObject() {
+        // given
+        RecordingStore store = new RecordingStore();
+        SessionManager sessionManager = new SessionManager(store);
+        sessionManager.setFlushDelay(Duration.ZERO);
+
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            numbers.add(i);
+        }
+
+        ObjectProperty<List<Integer>> numbersProperty = new SimpleObjectProperty<>();
+        sessionManager.register("test.object", numbersProperty, SessionManager.Codec.list(SessionManager.Codec.integer()));
+        numbersProperty.set(numbers);
+
+        SessionManager newManager = new SessionManager(store);
+        ObjectProperty<List<Integer>> newNumbersProperty = new SimpleObjectProperty<>(Collections.emptyList());
+
+        // when
+        newManager.register("test.object", newNumbersProperty, SessionManager.Codec.list(SessionManager.Codec.integer()));
+
+        // then
+        assertEquals(numbers, newNumbersProperty.get());
+        assertEquals(1, store.batches.size()); // all chunks at once
+        store.values.values().forEach(value -> assertTrue(value.length() <= Preferences.MAX_VALUE_LENGTH));
+    }
+
+    private static class RecordingStore implements SessionStore {
+
+        private final Map<String, String> values = new HashMap<>();
+
+        private final List<Map<String, String>> batches = new ArrayList<>();
+
+        @Override
+        public Map<String, String> load() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        public void save(Map<String, String> values, Set<String> removals) {
+            batches.add(values);
+            this.values.putAll(values);
+            this.values.keySet().removeAll(removals);
+        }
+    }
 }